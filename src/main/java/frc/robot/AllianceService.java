@@ -0,0 +1,90 @@
+package frc.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.Constants.FieldConstants;
+
+/**
+ * The alliance, read from the driver station once per loop, and the mirroring
+ * between the two halves of the field.
+ *
+ * <p>
+ * Everything else asks this class instead of polling {@link DriverStation}.
+ * Listeners are told about changes from {@link #update()} on the robot thread.
+ *
+ * <p>
+ * Field positions are written for the blue alliance. The 2023 field is
+ * mirrored, not rotated, across its center line, so the red version of a pose
+ * has its x measured from the other wall and its heading reflected. Anything
+ * used at runtime should be mirrored once up front and kept in an
+ * {@link AlliancePair}, so choosing between them costs nothing.
+ */
+public final class AllianceService {
+    /** A blue value and its mirrored red counterpart, computed ahead of time. */
+    public record AlliancePair<T>(T blue, T red) {
+        /** The value for the current alliance, blue while it is not known. */
+        public T get() {
+            return isRed() ? red : blue;
+        }
+    }
+
+    private static final List<Consumer<Alliance>> listeners = new ArrayList<>();
+    private static Alliance alliance = Alliance.Invalid;
+
+    private AllianceService() {
+    }
+
+    /** Reads the alliance and tells listeners if it changed. Call at the start of each loop. */
+    public static void update() {
+        Alliance current = DriverStation.getAlliance();
+        if (current == alliance) {
+            return;
+        }
+        Logger.getInstance().recordOutput("Alliance", current.name());
+        alliance = current;
+        for (Consumer<Alliance> listener : listeners) {
+            listener.accept(current);
+        }
+    }
+
+    /** The alliance as of the start of this loop, {@code Invalid} until the driver station says. */
+    public static Alliance get() {
+        return alliance;
+    }
+
+    public static boolean isRed() {
+        return alliance == Alliance.Red;
+    }
+
+    /** Calls {@code listener} with the current alliance now and on every change. */
+    public static void onChange(Consumer<Alliance> listener) {
+        listeners.add(listener);
+        listener.accept(alliance);
+    }
+
+    public static Translation2d mirror(Translation2d translation) {
+        return new Translation2d(FieldConstants.kFieldLengthMeters - translation.getX(), translation.getY());
+    }
+
+    public static Rotation2d mirror(Rotation2d rotation) {
+        return new Rotation2d(-rotation.getCos(), rotation.getSin());
+    }
+
+    public static Pose2d mirror(Pose2d pose) {
+        return new Pose2d(mirror(pose.getTranslation()), mirror(pose.getRotation()));
+    }
+
+    /** A blue pose paired with its red mirror. */
+    public static AlliancePair<Pose2d> mirrored(Pose2d blue) {
+        return new AlliancePair<>(blue, mirror(blue));
+    }
+}
@@ -0,0 +1,76 @@
+package frc.robot;
+
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * Builds the selected autonomous while the robot is disabled, so
+ * {@code autonomousInit()} only has to schedule it.
+ *
+ * <p>
+ * Auto options are factories. Whenever the selection changes, the factory is
+ * run from {@code disabledPeriodic()}, which generates its trajectories and
+ * loads its classes. A long disabled cycle costs nothing. {@link #get()} hands
+ * back that command if it still matches the selection, and only builds on the
+ * spot if it does not.
+ *
+ * <p>
+ * Builds run on the robot thread. Building a command group registers it with
+ * the {@code CommandScheduler}, which is not thread-safe, and sharing a lock
+ * with the scheduler would let a background build hold up the first enabled
+ * cycle. Autos do not depend on the alliance, since their paths pick the
+ * mirrored version when they start, so the FMS setting the alliance just
+ * before the match does not cause a rebuild.
+ */
+public class AutoPrecompiler {
+    private record Prepared(Supplier<Command> factory, Command command, double buildMs) {
+    }
+
+    private final LoggedDashboardChooser<Supplier<Command>> m_chooser;
+    private Prepared m_prepared;
+
+    public AutoPrecompiler(LoggedDashboardChooser<Supplier<Command>> chooser) {
+        m_chooser = chooser;
+    }
+
+    /** Call every disabled cycle. Builds the selected auto when the selection changes. */
+    public void update() {
+        Supplier<Command> factory = m_chooser.get();
+        if (factory == null || (m_prepared != null && m_prepared.factory() == factory)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            m_prepared = new Prepared(factory, factory.get(), (System.nanoTime() - start) / 1e6);
+        } catch (RuntimeException e) {
+            DriverStation.reportError("Could not build autonomous: " + e.getMessage(), e.getStackTrace());
+            // Don't retry every cycle, only when the selection changes again
+            m_prepared = new Prepared(factory, null, 0.0);
+            return;
+        }
+        Logger.getInstance().recordOutput("Auto/Precompiled", m_prepared.command().getName());
+        Logger.getInstance().recordOutput("Auto/PrecompileMs", m_prepared.buildMs());
+    }
+
+    /**
+     * Returns the command for the current selection, the precompiled one if it
+     * was built for this selection.
+     */
+    public Command get() {
+        Supplier<Command> factory = m_chooser.get();
+        if (factory == null) {
+            return null;
+        }
+        Prepared prepared = m_prepared;
+        if (prepared != null && prepared.factory() == factory && prepared.command() != null) {
+            return prepared.command();
+        }
+        DriverStation.reportWarning("Autonomous was not precompiled, building it now", false);
+        return factory.get();
+    }
+}
@@ -4,10 +4,27 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotBase;
 
 import com.revrobotics.CANSparkMax.IdleMode;
 
 public class Constants {
+    public static enum Mode {
+        /** Running on a real robot. */
+        REAL,
+        /** Running a physics simulator. */
+        SIM,
+        /** Replaying from a log file. */
+        REPLAY
+    }
+
+    // Mode to use when not running on a roboRIO, switch to REPLAY to replay a log
+    public static final Mode kSimMode = Mode.SIM;
+
+    public static Mode getMode() {
+        return RobotBase.isReal() ? Mode.REAL : kSimMode;
+    }
+
     public static final class DriveConstants {
         // Driving Parameters - Note that these are not the maximum capable speeds of
         // the robot, rather the allowed maximum speeds
@@ -23,11 +40,13 @@ public class Constants {
         // Distance between centers of right and left wheels on robot
         public static final double kWheelBase = Units.inchesToMeters(34.0 - 3.5);
         // Distance between front and back wheels on robot
-        public static final SwerveDriveKinematics kDriveKinematics = new SwerveDriveKinematics(
+        // Front left, front right, rear left, rear right
+        public static final Translation2d[] kModuleTranslations = {
                 new Translation2d(kWheelBase / 2, kTrackWidth / 2),
                 new Translation2d(kWheelBase / 2, -kTrackWidth / 2),
                 new Translation2d(-kWheelBase / 2, kTrackWidth / 2),
-                new Translation2d(-kWheelBase / 2, -kTrackWidth / 2));
+                new Translation2d(-kWheelBase / 2, -kTrackWidth / 2) };
+        public static final SwerveDriveKinematics kDriveKinematics = new SwerveDriveKinematics(kModuleTranslations);
 
         // Angular offsets of the modules relative to the chassis in radians
         public static final double kFrontLeftChassisAngularOffset = -Math.PI / 2;
@@ -47,6 +66,15 @@ public class Constants {
         public static final int kRearRightTurningCanId = 22;
 
         public static final boolean kGyroReversed = true;
+
+        // Heading hold and snap, in radians and radians per second
+        public static final double kHeadingP = 4.0;
+        // Damps the difference between the profile's rate and the gyro's, in seconds
+        public static final double kHeadingD = 0.1;
+        public static final TrapezoidProfile.Constraints kHeadingConstraints = new TrapezoidProfile.Constraints(
+                1.5 * Math.PI, 6 * Math.PI);
+        // The heading to hold is taken once the robot has nearly stopped turning
+        public static final double kHeadingCaptureRate = 0.5;
     }
 
     public static final class ModuleConstants {
@@ -86,10 +114,19 @@ public class Constants {
         public static final double kDrivingP = 0.1;
         public static final double kDrivingI = 0;
         public static final double kDrivingD = 0;
-        public static final double kDrivingFF = 1 / kDriveWheelFreeSpeedRps;
+        // Velocity feedforward is sent as arbitrary feedforward in volts instead
+        public static final double kDrivingFF = 0;
         public static final double kDrivingMinOutput = -1;
         public static final double kDrivingMaxOutput = 1;
 
+        // Drive motors run with voltage compensation, so the gains below and the
+        // P term above behave the same at any battery voltage
+        public static final double kDrivingNominalVoltage = 12.0;
+        // Starting values, replace with ./gradlew sysid on SysIdCommand drive data
+        public static final double kDrivingS = 0.2; // volts
+        public static final double kDrivingV = kDrivingNominalVoltage / kDriveWheelFreeSpeedRps; // volts per m/s
+        public static final double kDrivingA = 0.3; // volts per m/s^2
+
         public static final double kTurningP = 3.5;
         public static final double kTurningI = 0;
         public static final double kTurningD = 0;
@@ -119,11 +156,43 @@ public class Constants {
         public static final double kPYController = 1;
         public static final double kPThetaController = 5;
 
+        // How long the intake ejects when scoring a preload
+        public static final double kEjectSeconds = 0.5;
+        // Distance to back straight off the grid before the arm can fold
+        public static final double kGridClearanceMeters = 0.5;
+        // Drive away once the shoulder is below this, inside the frame perimeter
+        public static final double kDriveShoulderMaxDegrees = 100.0;
+
         // Constraint for the motion profiled robot angle controller
         public static final TrapezoidProfile.Constraints kThetaControllerConstraints = new TrapezoidProfile.Constraints(
                 kMaxAngularSpeedRadiansPerSecond, kMaxAngularSpeedRadiansPerSecondSquared);
     }
 
+    public static final class FieldConstants {
+        // Wall to wall, the same length the AprilTag layout uses
+        public static final double kFieldLengthMeters = Units.inchesToMeters(651.25);
+    }
+
+    public static final class AlignConstants {
+        // Grid AprilTags, each sits in front of a cube node with a cone node to either side
+        // Blue grid, the red grid's nodes are mirrored from these
+        public static final int[] kBlueGridTags = { 6, 7, 8 };
+        public static final double kConeNodeOffsetMeters = Units.inchesToMeters(22.0);
+        // Tag to robot center when scoring: tag to the front of the grid, half the
+        // bumpered robot and an inch of clearance
+        public static final double kNodeStandoffMeters = Units.inchesToMeters(13.8 + 20.5 + 1.0);
+        // Robot heading relative to facing straight at the grid
+        public static final double kScoringHeadingOffsetRadians = 0.0;
+
+        public static final double kMaxSpeedMetersPerSecond = 2.0;
+        public static final double kMaxAccelerationMetersPerSecondSquared = 2.5;
+        // Closer than this and the robot is already lined up
+        public static final double kPositionToleranceMeters = 0.03;
+        public static final double kHeadingToleranceRadians = Units.degreesToRadians(2.0);
+        // Extra time past the end of the trajectory to settle before giving up
+        public static final double kSettleTimeoutSeconds = 1.0;
+    }
+
     public static final class NeoMotorConstants {
         public static final double kFreeSpeedRpm = 5676;
     }
@@ -136,6 +205,155 @@ public class Constants {
         public static final double elbowP = 0.02;
         public static final double elbowI = 0.000001;
         public static final double elbowD = 0.005;
+
+        // Smart Motion runs in PID slot 1 and tracks velocity in degrees per second,
+        // slot 0 keeps the position gains above for holding at the target
+        public static final int kHoldSlot = 0;
+        public static final int kSmartMotionSlot = 1;
+        public static final double shoulderSmartMotionP = 0.0002;
+        public static final double shoulderSmartMotionFF = 1.0 / 170.0; // 1 / free speed in degrees per second
+        public static final double kShoulderMaxVelocity = 120; // degrees per second
+        public static final double kShoulderMaxAcceleration = 240; // degrees per second squared
+        public static final double elbowSmartMotionP = 0.0002;
+        public static final double elbowSmartMotionFF = 1.0 / 227.0;
+        public static final double kElbowMaxVelocity = 150;
+        public static final double kElbowMaxAcceleration = 300;
+        public static final double kSmartMotionAllowedErrorDegrees = 1.0;
+
+        // Gravity feedforward, volts needed to hold each link horizontal
+        public static final double kShoulderGravityVolts = 0.38;
+        public static final double kShoulderForearmGravityVolts = 0.16;
+        public static final double kElbowGravityVolts = 0.43;
+
+        // Switch from the profile to the position hold loop inside this error,
+        // and back to a profile outside the larger one
+        public static final double kHoldEnterDegrees = 5.0;
+        public static final double kHoldExitDegrees = 10.0;
+        // Only resend a reference when the feedforward has moved this much
+        public static final double kFeedforwardResendVolts = 0.05;
+        // Resend references this often anyway in case a controller reset
+        public static final double kReferenceRefreshSeconds = 1.0;
+
+        // Full stick deflection moves a joint this fast in manual mode
+        public static final double kManualDegreesPerSecond = 50.0;
+
+        // How close both joints must be to a waypoint before moving on to the next
+        public static final double kStateToleranceDegrees = 5.0;
+        // A waypoint not reached in this long cancels the move, longer than the
+        // slowest single step so only a stuck or blocked arm trips it
+        public static final double kWaypointTimeoutSeconds = 2.0;
+
+        // Physical model used by ArmIOSim. Masses and gearing are estimates, tune
+        // them against logged real arm moves.
+        public static final double kShoulderGearing = 200.0;
+        public static final double kElbowGearing = 150.0;
+        public static final double kShoulderMassKg = 2.5;
+        public static final double kElbowMassKg = 3.5; // includes the schlucker
+        public static final int kShoulderMotorCount = 2;
+        public static final double kShoulderCurrentLimit = 30; // amps per motor
+        public static final double kElbowCurrentLimit = 40; // amps
+        public static final double kJointDamping = 0.5; // newton meters per radian per second
+        public static final double kNominalVoltage = 12.0;
+    }
+
+    public static final class PowerConstants {
+        // Battery voltage is filtered before it is compared to the thresholds
+        public static final double kVoltageFilterSeconds = 0.06;
+        // Levels are entered below the first voltage and left above the second,
+        // after staying there for kRecoverySeconds
+        public static final double kReducedEnterVolts = 9.5;
+        public static final double kReducedExitVolts = 10.3;
+        public static final double kCriticalEnterVolts = 8.0;
+        public static final double kCriticalExitVolts = 9.0;
+        public static final double kRecoverySeconds = 1.0;
+        // Total draw that means a sag is coming even if the voltage still looks fine
+        public static final double kReducedCurrentAmps = 250.0;
+
+        // Per drive motor, per level (normal, reduced, critical)
+        public static final int[] kDriveCurrentLimits = { 50, 40, 25 };
+        // Drive limit while the arm is moving, so the arm gets the current it needs
+        public static final int[] kDriveCurrentLimitsArmMoving = { 50, 30, 20 };
+        public static final double[] kDriveSlewRateScales = { 1.0, 0.75, 0.5 };
+        // Stall limits, see ArmIOSparkMax
+        public static final int[] kShoulderCurrentLimits = { 30, 30, 25 };
+        public static final int[] kElbowCurrentLimits = { 40, 35, 30 };
+        public static final double[] kArmAccelerationScales = { 1.0, 0.8, 0.6 };
+        // Intaking keeps the full limit, stall detection needs the current
+        public static final int[] kSchluckerHoldCurrentLimits = { 10, 8, 6 };
+        // Limit changes are sent from the robot loop with a zero CAN timeout, so
+        // they never wait for an acknowledgement, then this default is restored
+        public static final int kSparkMaxCanTimeoutMs = 20;
+    }
+
+    public static final class LightsConstants {
+        // DIO pins to the separate light controller
+        public static final int kConePin = 11;
+        public static final int kCubePin = 12;
+
+        public static final int kLedPwmPort = 9;
+        public static final int kLedLength = 60;
+        public static final double kRenderPeriodSeconds = 0.02;
+
+        // A loop this long turns on the alarm, which stays on for the hold time
+        public static final double kLoopAlarmSeconds = 0.04;
+        public static final double kAlarmHoldSeconds = 1.0;
+
+        // Balance status shows while tilted past this and for the hold time after
+        public static final double kBalanceShowDegrees = 8.0;
+        public static final double kBalanceHoldSeconds = 3.0;
+        public static final double kBalanceLevelDegrees = 2.5;
+        // Tilt that lights the whole strip
+        public static final double kBalanceFullScaleDegrees = 15.0;
+    }
+
+    public static final class DriverCameraConstants {
+        // USB device numbers, switched between on one stream
+        public static final int[] kCameraDevices = { 0, 1 };
+        public static final int kCaptureWidth = 320;
+        public static final int kCaptureHeight = 240;
+        public static final int kCaptureFps = 30;
+
+        // Stream settings, best first: { width, height, fps, JPEG quality }
+        public static final int[][] kStreamLevels = {
+                { 320, 240, 25, 50 },
+                { 320, 240, 15, 40 },
+                { 240, 180, 15, 35 },
+                { 160, 120, 15, 30 },
+                { 160, 120, 10, 20 },
+        };
+        // Best level allowed in each phase, nobody drives off the camera in auto
+        public static final int kTeleopTopLevel = 0;
+        public static final int kDisabledTopLevel = 2;
+        public static final int kAutoTopLevel = 3;
+
+        // FMS caps each robot at 4 Mbps, stay under it with some margin
+        public static final double kLinkCapMbps = 4.0;
+        public static final double kLinkTargetFraction = 0.8;
+        // Step up only while usage is below this fraction of the target
+        public static final double kStepUpFraction = 0.6;
+        public static final double kStepDownSeconds = 0.5;
+        public static final double kStepUpSeconds = 3.0;
+
+        // roboRIO interface to the radio, sampled from /proc/net/dev
+        public static final String kLinkInterface = "eth0";
+        public static final double kLinkSamplePeriodSeconds = 0.25;
+        // Smoothing for the on-robot traffic measured before the driver station connects
+        public static final double kLocalTrafficTimeConstantSeconds = 2.0;
+    }
+
+    public static final class SysIdConstants {
+        // Quasistatic tests ramp slowly enough that acceleration is negligible,
+        // dynamic tests step to a fixed voltage
+        public static final double kDriveRampVoltsPerSecond = 0.5;
+        public static final double kDriveStepVolts = 6.0;
+        public static final double kTurnRampVoltsPerSecond = 0.25;
+        public static final double kTurnStepVolts = 4.0;
+        public static final double kQuasistaticSeconds = 8.0;
+        public static final double kDynamicSeconds = 1.5;
+        // Coast to a stop between tests
+        public static final double kRestSeconds = 1.5;
+        // Sampling runs off the main loop, with the status frames sped up to match
+        public static final double kSamplePeriod = 0.005;
     }
 
     public static final double kFeetToMeterFactor = 0.638f / 11.79f;
@@ -143,4 +361,15 @@ public class Constants {
     public static int ARM_ELBOW_LENGTH = 32;
 
     public static final double SCHLUCKER_HOLD_PERCENT = 0.3;
+    // Enough to keep a piece seated once the stall signature has confirmed it
+    public static final double SCHLUCKER_MIN_HOLD_PERCENT = 0.15;
+    public static final double SCHLUCKER_INTAKE_PERCENT = 0.7;
+
+    // Game piece detection from intake motor current, sampled off the main loop
+    public static final double SCHLUCKER_SAMPLE_PERIOD = 0.005; // seconds
+    public static final double SCHLUCKER_CURRENT_FILTER_TIME = 0.03; // seconds
+    public static final double SCHLUCKER_STALL_CURRENT = 8.0; // amps, the smart limit is 10
+    public static final int SCHLUCKER_CURRENT_LIMIT = 10; // amps
+    public static final double SCHLUCKER_STALL_TIME = 0.1; // seconds above the threshold
+    public static final double SCHLUCKER_INRUSH_TIME = 0.15; // seconds ignored after starting
 }
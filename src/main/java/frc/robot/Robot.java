@@ -3,12 +3,17 @@ package frc.robot;
 import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.LoggedRobot;
 import org.littletonrobotics.junction.Logger;
-import org.littletonrobotics.junction.networktables.NT4Publisher;
 import org.littletonrobotics.junction.wpilog.WPILOGReader;
 import org.littletonrobotics.junction.wpilog.WPILOGWriter;
 
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.utils.AsyncLogWriter;
+import frc.utils.JitWarmup;
+import frc.utils.JvmStats;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.TieredNT4Publisher;
 
 /**
  * The VM is configured to automatically run this class, and to call the
@@ -21,6 +26,9 @@ public class Robot extends LoggedRobot {
     private Command m_autonomousCommand;
 
     private RobotContainer m_robotContainer;
+    private AsyncLogWriter m_logWriter;
+    private JvmStats m_jvmStats;
+    private final LoopProfiler.Section m_telemetryProfile = LoopProfiler.section("Robot/Telemetry");
 
     /**
      * This function is run when the robot is first started up and should be
@@ -35,6 +43,12 @@ public class Robot extends LoggedRobot {
         // autonomous chooser on the dashboard.
         m_robotContainer = RobotContainer.getInstance();
         m_robotContainer.armReset();
+
+        // Get the loop code compiled now rather than in the first seconds of a match
+        if (Constants.getMode() != Constants.Mode.REPLAY) {
+            Logger.getInstance().recordOutput("JVM/WarmupMs", JitWarmup.run());
+        }
+        m_jvmStats = new JvmStats();
     }
 
     /**
@@ -53,7 +67,20 @@ public class Robot extends LoggedRobot {
         // finished or interrupted commands, and running subsystem periodic() methods.
         // This must be called from the robot's periodic block in order for anything in
         // the Command-based framework to work.
+        LoopProfiler.startCycle();
+        AllianceService.update();
         CommandScheduler.getInstance().run();
+        LoopProfiler.schedulerDone();
+
+        // Hand this cycle's changed telemetry to the logger in one pass
+        m_telemetryProfile.start();
+        if (m_logWriter != null) {
+            m_logWriter.updateTelemetry();
+        }
+        m_jvmStats.update();
+        Telemetry.flush();
+        m_telemetryProfile.stop();
+        LoopProfiler.endCycle();
     }
 
     /**
@@ -61,10 +88,13 @@ public class Robot extends LoggedRobot {
      */
     @Override
     public void disabledInit() {
+        // Where the time went while enabled
+        LoopProfiler.report();
     }
 
     @Override
     public void disabledPeriodic() {
+        m_robotContainer.precompileAutonomous();
     }
 
     /**
@@ -112,6 +142,11 @@ public class Robot extends LoggedRobot {
     public void testInit() {
         // Cancels all running commands at the start of test mode.
         CommandScheduler.getInstance().cancelAll();
+
+        Command testCommand = m_robotContainer.getTestCommand();
+        if (testCommand != null) {
+            testCommand.schedule();
+        }
     }
 
     /**
@@ -128,17 +163,31 @@ public class Robot extends LoggedRobot {
         logger.recordMetadata("Commit Hash (Short)", BuildConstants.GIT_SHA.substring(0, 8));
         logger.recordMetadata("Commit Hash (Full)", BuildConstants.GIT_SHA);
         logger.recordMetadata("Build Time", BuildConstants.BUILD_DATE);
-
-        if (isReal()) {
-            // Log to USB & Network Tables
-            logger.addDataReceiver(new WPILOGWriter("/media/sda1/"));
-            logger.addDataReceiver(new NT4Publisher());
-        } else {
-            // Replay from log and save to file
-            setUseTiming(false);
-            String logPath = LogFileUtil.findReplayLog();
-            logger.setReplaySource(new WPILOGReader(logPath));
-            logger.addDataReceiver(new WPILOGWriter(LogFileUtil.addPathSuffix(logPath, "_sim")));
+        logger.recordMetadata("Robot Config", RobotConfig.get().toString());
+
+        // Diagnostics nobody watches live stay in the log file
+        Telemetry.setPrefixTier("SystemStats/", Telemetry.Tier.LOG_ONLY);
+        Telemetry.setPrefixTier("PowerDistribution/", Telemetry.Tier.LOG_ONLY);
+
+        switch (Constants.getMode()) {
+            case REAL:
+                // Log everything to USB on its own thread, Network Tables gets each key at
+                // its tier's rate
+                m_logWriter = new AsyncLogWriter(new WPILOGWriter("/media/sda1/"));
+                logger.addDataReceiver(m_logWriter);
+                logger.addDataReceiver(new TieredNT4Publisher());
+                break;
+            case SIM:
+                // Physics simulation, publish to Network Tables only
+                logger.addDataReceiver(new TieredNT4Publisher());
+                break;
+            case REPLAY:
+                // Replay from log and save to file
+                setUseTiming(false);
+                String logPath = LogFileUtil.findReplayLog();
+                logger.setReplaySource(new WPILOGReader(logPath));
+                logger.addDataReceiver(new WPILOGWriter(LogFileUtil.addPathSuffix(logPath, "_sim")));
+                break;
         }
 
         logger.start();
@@ -0,0 +1,154 @@
+package frc.robot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * Robot-specific configuration, parsed once at boot.
+ *
+ * <p>
+ * Values come from {@code deploy/config.properties}. When
+ * {@code PRACTICE_ROBOT=true}, keys prefixed with {@code practice.} replace
+ * their unprefixed versions. Finally, a per-robot file kept outside the deploy
+ * directory ({@code /home/lvuser/robot.properties}) overrides everything, so
+ * calibration results survive deploys and the same code runs on both robots.
+ */
+public record RobotConfig(boolean debug, boolean practiceRobot, ArmConfig arm, DriveConfig drive) {
+    /** Absolute encoder zero offsets for the arm joints, in degrees. */
+    public record ArmConfig(double shoulderEncoderOffset, double elbowEncoderOffset) {
+    }
+
+    /** Chassis angular offsets of the swerve modules, in radians. */
+    public record DriveConfig(double frontLeftOffset, double frontRightOffset, double rearLeftOffset,
+            double rearRightOffset) {
+    }
+
+    public static final String DEBUG = "DEBUG";
+    public static final String PRACTICE_ROBOT = "PRACTICE_ROBOT";
+    public static final String SHOULDER_ENCODER_OFFSET = "SHOULDER_ENCODER_OFFSET";
+    public static final String ELBOW_ENCODER_OFFSET = "ELBOW_ENCODER_OFFSET";
+    public static final String FRONT_LEFT_OFFSET = "FRONT_LEFT_ANGULAR_OFFSET";
+    public static final String FRONT_RIGHT_OFFSET = "FRONT_RIGHT_ANGULAR_OFFSET";
+    public static final String REAR_LEFT_OFFSET = "REAR_LEFT_ANGULAR_OFFSET";
+    public static final String REAR_RIGHT_OFFSET = "REAR_RIGHT_ANGULAR_OFFSET";
+
+    private static final String DEPLOY_FILE = "config.properties";
+    private static final String LOCAL_FILE = "robot.properties";
+    private static final String PRACTICE_PREFIX = "practice.";
+
+    private static RobotConfig instance;
+
+    /** Returns the configuration, loading it on first use. */
+    public static synchronized RobotConfig get() {
+        if (instance == null) {
+            instance = parse(loadProperties());
+        }
+        return instance;
+    }
+
+    /**
+     * Writes values to the per-robot file and reloads the configuration. Existing
+     * subsystems keep the values they were built with, callers are expected to
+     * apply the new values themselves.
+     */
+    public static synchronized RobotConfig saveOverrides(Map<String, String> values) {
+        File file = getLocalFile();
+        Properties local = new Properties();
+        read(file, local);
+        local.putAll(values);
+        try (OutputStream out = new FileOutputStream(file)) {
+            local.store(out, "Per-robot overrides, written by calibration");
+        } catch (IOException e) {
+            DriverStation.reportError("Could not write " + file + ": " + e.getMessage(), false);
+        }
+        instance = parse(loadProperties());
+        return instance;
+    }
+
+    private static Properties loadProperties() {
+        Properties deploy = new Properties();
+        read(new File(Filesystem.getDeployDirectory(), DEPLOY_FILE), deploy);
+        Properties local = new Properties();
+        read(getLocalFile(), local);
+        return layer(deploy, local);
+    }
+
+    /**
+     * Stacks the deploy file, its {@code practice.} keys on a practice robot,
+     * and the per-robot file, each replacing the one before.
+     */
+    static Properties layer(Properties deploy, Properties local) {
+        Properties properties = new Properties();
+        properties.putAll(deploy);
+
+        if (Boolean.parseBoolean(properties.getProperty(PRACTICE_ROBOT, "false").trim())) {
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith(PRACTICE_PREFIX)) {
+                    properties.setProperty(key.substring(PRACTICE_PREFIX.length()), properties.getProperty(key));
+                }
+            }
+        }
+
+        properties.putAll(local);
+        return properties;
+    }
+
+    static RobotConfig parse(Properties properties) {
+        return new RobotConfig(
+                getBoolean(properties, DEBUG, false),
+                getBoolean(properties, PRACTICE_ROBOT, false),
+                new ArmConfig(
+                        getDouble(properties, SHOULDER_ENCODER_OFFSET, 0.0),
+                        getDouble(properties, ELBOW_ENCODER_OFFSET, 0.0)),
+                new DriveConfig(
+                        getDouble(properties, FRONT_LEFT_OFFSET, DriveConstants.kFrontLeftChassisAngularOffset),
+                        getDouble(properties, FRONT_RIGHT_OFFSET, DriveConstants.kFrontRightChassisAngularOffset),
+                        getDouble(properties, REAR_LEFT_OFFSET, DriveConstants.kBackLeftChassisAngularOffset),
+                        getDouble(properties, REAR_RIGHT_OFFSET, DriveConstants.kBackRightChassisAngularOffset)));
+    }
+
+    private static File getLocalFile() {
+        File directory = RobotBase.isReal() ? new File("/home/lvuser") : Filesystem.getOperatingDirectory();
+        return new File(directory, LOCAL_FILE);
+    }
+
+    private static void read(File file, Properties properties) {
+        if (!file.exists()) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            DriverStation.reportError("Could not read " + file + ": " + e.getMessage(), false);
+        }
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private static double getDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            DriverStation.reportError("Bad value for " + key + " in robot config: " + value, false);
+            return defaultValue;
+        }
+    }
+}
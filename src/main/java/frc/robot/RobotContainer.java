@@ -1,23 +1,31 @@
 package frc.robot;
 
-import frc.robot.Constants.OIConstants;
+import frc.robot.Constants.DriveConstants;
 import frc.robot.commands.*;
 import frc.robot.subsystems.*;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.RunCommand;
 import edu.wpi.first.wpilibj2.command.StartEndCommand;
-import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.button.CommandJoystick;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
 import edu.wpi.first.wpilibj2.command.button.POVButton;
-import edu.wpi.first.cameraserver.CameraServer;
-import edu.wpi.first.cscore.UsbCamera;
-import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.utils.DriverInputShaper;
+import frc.utils.LoopProfiler;
+
+import java.io.File;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
 
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.GenericHID.RumbleType;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
  * This class is where the bulk of the robot should be declared. Since
@@ -29,51 +37,139 @@ import edu.wpi.first.wpilibj.XboxController;
 public class RobotContainer {
   private static RobotContainer m_robotContainer = null;
 
-  private final DriveSubsystem m_robotDrive = new DriveSubsystem();
+  private final DriveSubsystem m_robotDrive;
   public final Lights m_lights;
   public final Vision m_vision;
   public final Schlucker m_schlucker;
   public final Arm m_arm;
-  private final UsbCamera usbcamera;
+  private final PowerManager m_power;
+  private final DriverCameraManager m_driverCamera;
   private final XboxController xboxController = new XboxController(2);
   private final CommandJoystick one = new CommandJoystick(0);
   private final CommandJoystick two = new CommandJoystick(1);
 
-  private final LoggedDashboardChooser<Command> m_chooser = new LoggedDashboardChooser<>("Auto Mode");
+  private final LoggedDashboardChooser<Supplier<Command>> m_chooser = new LoggedDashboardChooser<>("Auto Mode");
+  private final AutoPrecompiler m_autoPrecompiler = new AutoPrecompiler(m_chooser);
+  private final LoggedDashboardChooser<Command> m_testChooser = new LoggedDashboardChooser<>("Test Mode");
+  private final LoggedDashboardChooser<String> m_driverChooser = new LoggedDashboardChooser<>("Driver Profile");
+
+  // Teleop stick shaping, profiles are in deploy/drivers.properties
+  private final DriverInputShaper m_inputShaper = new DriverInputShaper();
+  private final Map<String, DriverInputShaper.Profile> m_driverProfiles = DriverInputShaper.loadProfiles(
+      new File(Filesystem.getDeployDirectory(), "drivers.properties"));
 
   private RobotContainer() {
 
-    m_lights = new Lights();
-    m_schlucker = new Schlucker();
-    m_arm = new Arm();
-    m_vision = new Vision("MainC", m_robotDrive);
-    usbcamera = CameraServer.startAutomaticCapture();
-    usbcamera.setResolution(320, 240);
+    PowerIO powerIO;
+    switch (Constants.getMode()) {
+      case REAL:
+        m_robotDrive = new DriveSubsystem(
+            new GyroIONavX(),
+            new ModuleIOSparkMax(DriveConstants.kFrontLeftDrivingCanId, DriveConstants.kFrontLeftTurningCanId),
+            new ModuleIOSparkMax(DriveConstants.kFrontRightDrivingCanId, DriveConstants.kFrontRightTurningCanId),
+            new ModuleIOSparkMax(DriveConstants.kRearLeftDrivingCanId, DriveConstants.kRearLeftTurningCanId),
+            new ModuleIOSparkMax(DriveConstants.kRearRightDrivingCanId, DriveConstants.kRearRightTurningCanId));
+        m_schlucker = new Schlucker(new SchluckerIOSparkMax());
+        m_arm = new Arm(new ArmIOSparkMax(RobotConfig.get().arm()), RobotConfig.get().arm());
+        m_vision = new Vision(new VisionIOPhoton("MainC", Vision.getFieldLayout()), m_robotDrive);
+        powerIO = new PowerIOReal();
+        break;
+      case SIM:
+        // No gyro or camera in simulation, the drive integrates its heading
+        m_robotDrive = new DriveSubsystem(
+            new GyroIO() {},
+            new ModuleIOSim(),
+            new ModuleIOSim(),
+            new ModuleIOSim(),
+            new ModuleIOSim());
+        m_schlucker = new Schlucker(new SchluckerIOSim());
+        m_arm = new Arm(new ArmIOSim(RobotConfig.get().arm()), RobotConfig.get().arm());
+        m_vision = new Vision(new VisionIO() {}, m_robotDrive);
+        powerIO = new PowerIOSim(
+            () -> m_robotDrive.getCurrentAmps() + m_arm.getCurrentAmps() + m_schlucker.getCurrentAmps());
+        break;
+      default:
+        // Replay, every input comes from the log
+        m_robotDrive = new DriveSubsystem(
+            new GyroIO() {},
+            new ModuleIO() {},
+            new ModuleIO() {},
+            new ModuleIO() {},
+            new ModuleIO() {});
+        m_schlucker = new Schlucker(new SchluckerIO() {});
+        m_arm = new Arm(new ArmIO() {}, RobotConfig.get().arm());
+        m_vision = new Vision(new VisionIO() {}, m_robotDrive);
+        powerIO = new PowerIO() {};
+        break;
+    }
+    m_lights = new Lights(m_vision::hasTarget, m_robotDrive::getPitch);
+    // After the other subsystems, so it runs after them each loop
+    m_power = new PowerManager(powerIO, m_robotDrive, m_arm, m_schlucker);
+    m_driverCamera = new DriverCameraManager();
     configureButtonBindings();
 
     m_arm.setDefaultCommand(new ArmManualCommand(m_arm, xboxController));
 
+    // Options are factories, the selected one is built ahead of time while disabled
     m_chooser.addDefaultOption("Auto CUBE and Balance",
-        new AutoCubeAndBalanceCommand(m_robotDrive, m_schlucker, m_arm));
-    m_chooser.addOption("Auto cone and Balance", new AutoConeAndBalanceCommand(m_robotDrive, m_schlucker, m_arm));
-    m_chooser.addOption("Cube", new AutoCubeGetOutCommand(m_robotDrive, m_schlucker, m_arm));
-    m_chooser.addOption("Cone", new AutoConeGetOutCommand(m_robotDrive, m_schlucker, m_arm));
+        () -> new AutoCubeAndBalanceCommand(m_robotDrive, m_schlucker, m_arm));
+    m_chooser.addOption("Auto cone and Balance",
+        () -> new AutoConeAndBalanceCommand(m_robotDrive, m_schlucker, m_arm));
+    m_chooser.addOption("Cube", () -> new AutoCubeGetOutCommand(m_robotDrive, m_schlucker, m_arm));
+    m_chooser.addOption("Cone", () -> new AutoConeGetOutCommand(m_robotDrive, m_schlucker, m_arm));
+
+    m_chooser.addOption("Auto Balance", () -> new AutoBalanceRoutine(m_robotDrive));
+
+    // Routines from deploy/autos, built and checked here so nothing is generated at autonomousInit()
+    new AutoRoutineLoader(m_robotDrive, m_schlucker, m_arm)
+        .loadAll(new File(Filesystem.getDeployDirectory(), "autos"))
+        .forEach((name, command) -> m_chooser.addOption(name, () -> command));
+
+    m_driverChooser.addDefaultOption(DriverInputShaper.DEFAULT_PROFILE, DriverInputShaper.DEFAULT_PROFILE);
+    for (String name : m_driverProfiles.keySet()) {
+      if (!name.equals(DriverInputShaper.DEFAULT_PROFILE)) {
+        m_driverChooser.addOption(name, name);
+      }
+    }
+
+    // Characterization runs from test mode, with the robot up on the floor and clear space around it
+    m_testChooser.addDefaultOption("Nothing", new InstantCommand());
+    m_testChooser.addOption("Characterize Drive", new SysIdCommand(m_robotDrive, false));
+    m_testChooser.addOption("Characterize Turning", new SysIdCommand(m_robotDrive, true));
 
-    m_chooser.addOption("Auto Balance", new AutoBalanceRoutine(m_robotDrive));
+    // Run while disabled with the arm stowed / wheels pointed forward
+    SmartDashboard.putData("Calibrate Arm Offsets", new ArmCalibrateOffsetsCommand(m_arm));
+    SmartDashboard.putData("Calibrate Swerve Offsets", new ChassisCalibrateOffsetsCommand(m_robotDrive));
 
     // Configure default commands
     m_robotDrive.setDefaultCommand(
         // The left stick controls translation of the robot.
-        // Turning is controlled by the X axis of the right stick.
+        // Turning is controlled by the X axis of the right stick, the heading is held
+        // while it is centered.
         new RunCommand(
-            () -> m_robotDrive.drive(
-                -MathUtil.applyDeadband(one.getY(), OIConstants.kDriveDeadband),
-                -MathUtil.applyDeadband(one.getX(), OIConstants.kDriveDeadband),
-                -MathUtil.applyDeadband(two.getX(), OIConstants.kDriveDeadband),
-                true, true),
+            () -> {
+              m_inputShaper.setProfile(
+                  m_driverProfiles.getOrDefault(m_driverChooser.get(), DriverInputShaper.DEFAULT));
+              m_inputShaper.shapeTranslation(-one.getY(), -one.getX());
+              m_robotDrive.teleopDrive(
+                  m_inputShaper.getX(),
+                  m_inputShaper.getY(),
+                  m_inputShaper.shapeRotation(-two.getX()),
+                  true, true);
+            },
             m_robotDrive));
   }
 
+  /**
+   * Snaps to a heading given as seen from the blue driver station, mirrored
+   * when on the red alliance so it is the same direction for the driver.
+   */
+  private Command snapFromDriverStation(double blueRadians) {
+    AllianceService.AlliancePair<Double> heading = new AllianceService.AlliancePair<>(blueRadians,
+        AllianceService.mirror(new Rotation2d(blueRadians)).getRadians());
+    return new InstantCommand(() -> m_robotDrive.snapToHeading(heading.get()));
+  }
+
   public void armReset() {
     m_arm.setElbowSetpoint(m_arm.getElbowAngle());
     m_arm.setShoulderSetpoint(m_arm.getShoulderAngle());
@@ -93,10 +189,21 @@ public class RobotContainer {
    * passing it to a {@link edu.wpi.first.wpilibj2.command.button.JoystickButton}.
    */
   private void configureButtonBindings() {
+    // Bracket the bindings so the profiler can time the button loop
+    LoopProfiler.install(CommandScheduler.getInstance());
+
     one.trigger().toggleOnTrue(new StartEndCommand(m_robotDrive::setX, () -> {}, m_robotDrive));
 
     two.trigger().onTrue(new InstantCommand(() -> m_robotDrive.zeroHeading(), m_robotDrive));
 
+    // Snap to a field heading, the POV direction as seen from our driver station
+    two.pov(0).onTrue(snapFromDriverStation(0));
+    two.pov(90).onTrue(snapFromDriverStation(-Math.PI / 2));
+    two.pov(180).onTrue(snapFromDriverStation(Math.PI));
+    two.pov(270).onTrue(snapFromDriverStation(Math.PI / 2));
+
+    two.button(2).onTrue(new InstantCommand(m_driverCamera::nextCamera));
+
     one.button(5).onTrue(new AutonomousBalanceCommand(m_robotDrive)); // DO NOT DELETE
 
     /* Lights Controls */
@@ -104,8 +211,19 @@ public class RobotContainer {
     one.button(6).onTrue(new InstantCommand(m_lights::showCone, m_lights));
 
     one.button(7).onTrue(new InstantCommand(m_lights::showCube, m_lights));
-    // one.button(2).onTrue(new InstantCommand(m_robotDrive::toggleSlowMode,
-    // m_robotDrive));
+
+    // Hold to line up on the nearest grid node while the arm gets ready for it.
+    // HIGH stages everything but the reach out; MID is a single move that stays
+    // inside the frame perimeter, so it is made in full.
+    one.button(3).whileTrue(
+        new ChassisAlignToNodeCommand(m_robotDrive).alongWith(new ArmStateCommand(ArmState.HIGH, true, m_arm)));
+    one.button(4).whileTrue(
+        new ChassisAlignToNodeCommand(m_robotDrive).alongWith(new ArmStateCommand(ArmState.MID, m_arm)));
+
+    // Hold for precision mode
+    one.button(2).whileTrue(new StartEndCommand(
+        () -> m_inputShaper.setPrecision(true),
+        () -> m_inputShaper.setPrecision(false)));
 
     // Buttons
 
@@ -116,18 +234,20 @@ public class RobotContainer {
 
     // B button = reset position (stow)
     JoystickButton xboxBButton = new JoystickButton(xboxController, XboxController.Button.kB.value);
-    xboxBButton.onTrue(
-        (new ArmShoulderSetpointCommand(20, m_arm))
-        .andThen(new ArmElbowSetpointCommand(220, m_arm)
-        .andThen(new WaitCommand(1))
-        .andThen(new ArmShoulderSetpointCommand(0, m_arm))
-        .andThen(new ArmElbowSetpointCommand(209, m_arm))));
+    xboxBButton.onTrue(new ArmStateCommand(ArmState.STOW, m_arm));
 
     // X button = picks up cube and drops cone
     JoystickButton xboxXButton = new JoystickButton(xboxController, XboxController.Button.kX.value);
     xboxXButton.onTrue(new InstantCommand(m_schlucker::intakeCube, m_schlucker));
     xboxXButton.onFalse(new InstantCommand(m_schlucker::hold, m_schlucker));
 
+    // Rumble the operator controller when the intake confirms a game piece
+    new Trigger(m_schlucker::hasConfirmedPiece).onTrue(
+        new StartEndCommand(
+            () -> xboxController.setRumble(RumbleType.kBothRumble, 1.0),
+            () -> xboxController.setRumble(RumbleType.kBothRumble, 0.0))
+        .withTimeout(0.3));
+
     // Y button = eject button
     JoystickButton xboxYButton = new JoystickButton(xboxController, XboxController.Button.kY.value);
     xboxYButton.onTrue(new InstantCommand(m_schlucker::eject, m_schlucker));
@@ -137,28 +257,29 @@ public class RobotContainer {
 
     // Substation pickup
     POVButton xboxDpadUpButton = new POVButton(xboxController, 0);
-    xboxDpadUpButton.onTrue((new ArmShoulderSetpointCommand(65, m_arm))
-          .andThen(new ArmElbowSetpointCommand(264, m_arm)));
+    xboxDpadUpButton.onTrue(new ArmStateCommand(ArmState.SUBSTATION, m_arm));
 
     // Mid level node
     POVButton xboxDpadRightButton = new POVButton(xboxController, 90);
-    xboxDpadRightButton.onTrue((new ArmShoulderSetpointCommand(79, m_arm))
-        .andThen(new ArmElbowSetpointCommand(265, m_arm)));
+    xboxDpadRightButton.onTrue(new ArmStateCommand(ArmState.MID, m_arm));
 
-    // Cone Ground pickup
+    // Cube Ground pickup
     POVButton xboxDpadDownButton = new POVButton(xboxController, 180);
-    xboxDpadDownButton.onTrue((new ArmShoulderSetpointCommand(110, m_arm))
-        .andThen(new ArmElbowSetpointCommand(230, m_arm)));
+    xboxDpadDownButton.onTrue(new ArmStateCommand(ArmState.GROUND_CUBE, m_arm));
 
     // Cone Ground pickup
     JoystickButton xboxLeftBumperButton = new JoystickButton(xboxController, XboxController.Button.kLeftBumper.value);
-    xboxLeftBumperButton.onTrue((new ArmShoulderSetpointCommand(127, m_arm))
-        .andThen(new ArmElbowSetpointCommand(224, m_arm)));
+    xboxLeftBumperButton.onTrue(new ArmStateCommand(ArmState.GROUND_CONE, m_arm));
 
     // High level mode
     POVButton xboxDpadLeftButton = new POVButton(xboxController, 270);
-    xboxDpadLeftButton.onTrue((new ArmShoulderSetpointCommand(112, m_arm))
-        .andThen(new ArmElbowSetpointCommand(329, m_arm)));
+    xboxDpadLeftButton.onTrue(new ArmStateCommand(ArmState.HIGH, m_arm));
+
+    // Right bumper = pre-stage for the high node while driving, D-pad left finishes the move
+    JoystickButton xboxRightBumperButton = new JoystickButton(xboxController, XboxController.Button.kRightBumper.value);
+    xboxRightBumperButton.onTrue(new ArmStateCommand(ArmState.HIGH, true, m_arm));
+
+    LoopProfiler.endButtonBindings();
   }
 
   public XboxController getXboxController() {
@@ -169,6 +290,20 @@ public class RobotContainer {
    * @return the command to run in autonomous
    */
   public Command getAutonomousCommand() {
-    return m_chooser.get();
+    return m_autoPrecompiler.get();
+  }
+
+  /** Call every disabled cycle to keep the selected autonomous built. */
+  public void precompileAutonomous() {
+    m_autoPrecompiler.update();
+  }
+
+  /**
+   * Use this to pass the test mode routine to the main {@link Robot} class.
+   *
+   * @return the command to run in test mode
+   */
+  public Command getTestCommand() {
+    return m_testChooser.get();
   }
 }
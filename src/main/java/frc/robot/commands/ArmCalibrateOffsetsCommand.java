@@ -0,0 +1,42 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.robot.RobotConfig;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmState;
+
+/**
+ * Measures new arm encoder offsets with the arm resting in the stow pose,
+ * applies them and saves them to the per-robot config file. Meant to be run
+ * from the dashboard while disabled.
+ */
+public class ArmCalibrateOffsetsCommand extends InstantCommand {
+  private final Arm m_arm;
+
+  public ArmCalibrateOffsetsCommand(Arm arm) {
+    m_arm = arm;
+    addRequirements(m_arm);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    RobotConfig.ArmConfig offsets = m_arm.calibrateOffsets(ArmState.STOW);
+    RobotConfig.saveOverrides(Map.of(
+        RobotConfig.SHOULDER_ENCODER_OFFSET, Double.toString(offsets.shoulderEncoderOffset()),
+        RobotConfig.ELBOW_ENCODER_OFFSET, Double.toString(offsets.elbowEncoderOffset())));
+    DriverStation.reportWarning("Arm offsets saved: " + offsets, false);
+  }
+
+  @Override
+  public boolean runsWhenDisabled() {
+    return true;
+  }
+}
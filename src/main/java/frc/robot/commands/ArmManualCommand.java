@@ -4,16 +4,22 @@
 
 package frc.robot.commands;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.Constants.ArmConstants;
 import frc.robot.subsystems.Arm;
 
 public class ArmManualCommand extends CommandBase {
   /** Creates a new ManualArmCommand. */
 
+  // Cap on a single step so a long pause doesn't jump the setpoint
+  private static final double MAX_DT = 0.1;
+
   private final Arm m_arm;
   private double shoulderSetPoint = 0;
   private double elbowSetPoint = 0;
+  private double lastTime;
   XboxController controller;
   
   public ArmManualCommand(Arm subsystem, XboxController x) {
@@ -29,24 +35,29 @@ public class ArmManualCommand extends CommandBase {
     //XboxController xboxController=RobotContainer.getInstance().getxbox();
     shoulderSetPoint = m_arm.getShoulderAngle();
     elbowSetPoint = m_arm.getElbowAngle();
+    lastTime = Timer.getFPGATimestamp();
     //SmartDashboard.putBoolean("Running Arm", true);
   }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
-    shoulderSetPoint = m_arm.getShoulderSetpoint();
+    // Scale by the measured loop time so the arm moves at the same rate no
+    // matter how long a cycle took
+    double now = Timer.getFPGATimestamp();
+    double dt = Math.min(now - lastTime, MAX_DT);
+    lastTime = now;
+    double step = ArmConstants.kManualDegreesPerSecond * dt;
+
     if (Math.abs(controller.getRightY()) > 0.1) {
-      shoulderSetPoint -= controller.getRightY();
+      shoulderSetPoint = m_arm.getShoulderSetpoint() - controller.getRightY() * step;
+      m_arm.setShoulderSetpoint(shoulderSetPoint);
     }
-    m_arm.setShoulderSetpoint(shoulderSetPoint);
 
-    elbowSetPoint = m_arm.getElbowSetpoint();
     if (Math.abs(controller.getLeftY()) > 0.1) {
-      elbowSetPoint -= controller.getLeftY();
+      elbowSetPoint = m_arm.getElbowSetpoint() - controller.getLeftY() * step;
+      m_arm.setElbowSetpoint(elbowSetPoint);
     }
-    m_arm.setElbowSetpoint(elbowSetPoint);
-    
   }
 
   // Called once the command ends or is interrupted.
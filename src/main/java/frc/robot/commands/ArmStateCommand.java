@@ -0,0 +1,138 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.FunctionalCommand;
+import frc.robot.Constants.ArmConstants;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmState;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
+
+/**
+ * Moves the arm to a named state by walking the precomputed waypoints from
+ * {@link ArmState#path}. Each waypoint is held until both joints settle on it
+ * before the next one is commanded, so folds added for safety are never
+ * skipped.
+ *
+ * <p>
+ * If a waypoint is rejected by the arm's limits or not reached within
+ * {@link ArmConstants#kWaypointTimeoutSeconds}, the command that owns the arm
+ * is cancelled: this command on its own, or the whole routine it is part of,
+ * so nothing that depends on the arm being in place runs after it.
+ *
+ * <p>
+ * When built with {@code prestage} set, the command stops one waypoint short of
+ * the goal, so the arm can be staged while driving and the final scoring move
+ * is as short as possible.
+ */
+public class ArmStateCommand extends CommandBase {
+  // Move boundaries for log analysis, shared by every instance
+  private static final Telemetry.BooleanEntry movingEntry = Telemetry.booleanEntry("ArmState/Moving", Tier.FULL);
+  private static final Telemetry.DoubleEntry goalEntry = Telemetry.doubleEntry("ArmState/Goal", Tier.DASHBOARD);
+  // Counts every start, so back-to-back moves still show up when Moving never drops
+  private static final Telemetry.DoubleEntry startsEntry = Telemetry.doubleEntry("ArmState/Starts", Tier.LOG_ONLY);
+  private static int starts = 0;
+
+  private final Arm m_arm;
+  private final ArmState m_goal;
+  private final boolean m_prestage;
+  private final Timer timer = new Timer();
+  private ArmState[] path;
+  private int index;
+  // Set when the current waypoint was rejected, acted on in execute()
+  private boolean rejected;
+
+  public ArmStateCommand(ArmState goal, Arm arm) {
+    this(goal, false, arm);
+  }
+
+  public ArmStateCommand(ArmState goal, boolean prestage, Arm arm) {
+    m_arm = arm;
+    m_goal = goal;
+    m_prestage = prestage;
+    addRequirements(m_arm);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    ArmState from = m_arm.getState();
+    path = m_prestage ? ArmState.stagingPath(from, m_goal) : ArmState.path(from, m_goal);
+    index = 0;
+    movingEntry.set(true);
+    goalEntry.set(m_goal.ordinal());
+    startsEntry.set(++starts);
+    startWaypoint();
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    if (index >= path.length) {
+      return;
+    }
+    if (rejected) {
+      abort(m_arm, "Arm rejected waypoint " + path[index] + " on the way to " + m_goal);
+    } else if (m_arm.atState(path[index], ArmConstants.kStateToleranceDegrees)) {
+      index++;
+      startWaypoint();
+    } else if (timer.hasElapsed(ArmConstants.kWaypointTimeoutSeconds)) {
+      abort(m_arm, "Arm did not reach waypoint " + path[index] + " on the way to " + m_goal);
+    }
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    movingEntry.set(false);
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    return index >= path.length;
+  }
+
+  private void startWaypoint() {
+    if (index < path.length) {
+      rejected = !m_arm.setState(path[index]);
+      timer.reset();
+      timer.start();
+    }
+  }
+
+  /**
+   * Reports why and cancels whatever command owns the arm. The cancel is only
+   * applied at the end of the scheduler loop, so the caller must not finish in
+   * the meantime or a group would start its next step first.
+   */
+  public static void abort(Arm arm, String reason) {
+    DriverStation.reportWarning(reason + ", cancelling", false);
+    Command owner = CommandScheduler.getInstance().requiring(arm);
+    if (owner != null) {
+      owner.cancel();
+    }
+  }
+
+  /**
+   * A step that lets a routine go on only if the arm is at {@code state}, and
+   * otherwise cancels the routine that owns the arm. When it cancels it never
+   * finishes, so the group cannot start its next step before the cancel lands.
+   */
+  public static Command requireState(ArmState state, Arm arm) {
+    return new FunctionalCommand(
+        () -> {},
+        () -> abort(arm, "Arm is not at " + state),
+        interrupted -> {},
+        () -> false)
+        .unless(() -> arm.atState(state, ArmConstants.kStateToleranceDegrees));
+  }
+}
@@ -4,9 +4,7 @@
 
 package frc.robot.commands;
 
-import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
-import edu.wpi.first.wpilibj2.command.WaitCommand;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.DriveSubsystem;
 import frc.robot.subsystems.Schlucker;
@@ -20,30 +18,9 @@ public class AutoCubeAndBalanceCommand extends SequentialCommandGroup {
     m_chassis = chassis;
     m_schlucker = schlucker;
     m_arm = arm;
-    
     addCommands(
-        (new InstantCommand(m_schlucker::intakeCube, m_schlucker)),
-        (new InstantCommand(m_schlucker::hold, m_schlucker)),
-        (new WaitCommand(0.25)),
-        (new ArmShoulderSetpointCommand(112, m_arm)),
-        (new ArmElbowSetpointCommand(355, m_arm)),
-        (new WaitCommand(1)),
-        (new ArmElbowSetpointCommand(329, m_arm)),
-        (new WaitCommand(0.5)),
-        (new InstantCommand(m_schlucker::eject, m_schlucker)),
-        (new ArmElbowSetpointCommand(350, m_arm)),
-        (new WaitCommand(0.5)),
-        (new InstantCommand(m_schlucker::stop, m_schlucker)),
-        (new ChassisDriveToDistanceCommand(-0.5, 0.4, m_chassis)),
-        (new ArmShoulderSetpointCommand(20, m_arm)),
-        (new ArmElbowSetpointCommand(220, m_arm)),
-        (new WaitCommand(0.5)),
-        (new ChassisDriveToDistanceCommand(-3.5, 0.3, m_chassis)),
-        (new AutoBalanceRoutine(m_chassis)))
-      
-        
-
-    ;
-
+        new AutoScoreHighCommand(false, m_schlucker, m_arm),
+        new AutoLeaveGridCommand(-3.5, 0.3, m_chassis, m_schlucker, m_arm),
+        new AutoBalanceRoutine(m_chassis));
   }
-}
\ No newline at end of file
+}
@@ -4,9 +4,7 @@
 
 package frc.robot.commands;
 
-import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
-import edu.wpi.first.wpilibj2.command.WaitCommand;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.DriveSubsystem;
 import frc.robot.subsystems.Schlucker;
@@ -21,25 +19,7 @@ public class AutoCubeGetOutCommand extends SequentialCommandGroup {
     m_schlucker = schlucker;
     m_arm = arm;
     addCommands(
-        (new InstantCommand(m_schlucker::intakeCube, m_schlucker)),
-        (new InstantCommand(m_schlucker::hold, m_schlucker)),
-        (new WaitCommand(1)),
-        (new ArmShoulderSetpointCommand(112, m_arm)),
-        (new ArmElbowSetpointCommand(355, m_arm)),
-        (new WaitCommand(2)),
-        (new ArmElbowSetpointCommand(329, m_arm)),
-        (new WaitCommand(1)),
-        (new InstantCommand(m_schlucker::eject, m_schlucker)),
-        (new ArmElbowSetpointCommand(350, m_arm)),
-        (new WaitCommand(0.5)),
-        (new InstantCommand(m_schlucker::stop, m_schlucker)),
-        (new ChassisDriveToDistanceCommand(-0.5, 0.4, m_chassis)),
-        (new ArmShoulderSetpointCommand(20, m_arm)),
-        (new ArmElbowSetpointCommand(220, m_arm)),
-        (new WaitCommand(1)),
-        (new ChassisDriveToDistanceCommand(-4, 0.4, m_chassis)))
-
-    ;
-
+        new AutoScoreHighCommand(false, m_schlucker, m_arm),
+        new AutoLeaveGridCommand(-4, 0.4, m_chassis, m_schlucker, m_arm));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import edu.wpi.first.wpilibj2.command.WaitUntilCommand;
+import frc.robot.Constants.AutoConstants;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmState;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.Schlucker;
+
+/**
+ * Backs away from the grid after scoring and drives on while the arm folds.
+ *
+ * <p>
+ * The arm is still reaching over the node when this starts, so the robot first
+ * backs straight off to clear it. The arm then starts folding, and the long
+ * drive starts as soon as the shoulder is back inside the frame perimeter
+ * instead of after the whole stow.
+ */
+public class AutoLeaveGridCommand extends SequentialCommandGroup {
+  /**
+   * @param distance Distance to drive once clear of the grid, negative for
+   *                 backwards.
+   * @param speed    Speed for that drive.
+   */
+  public AutoLeaveGridCommand(double distance, double speed, DriveSubsystem chassis, Schlucker schlucker, Arm arm) {
+    addCommands(
+        new InstantCommand(schlucker::stop, schlucker),
+        new ChassisDriveToDistanceCommand(-AutoConstants.kGridClearanceMeters, 0.4, chassis),
+        new ParallelCommandGroup(
+            new ArmStateCommand(ArmState.STOW_TRANSIT, arm),
+            new SequentialCommandGroup(
+                new WaitUntilCommand(() -> arm.getShoulderAngle() < AutoConstants.kDriveShoulderMaxDegrees),
+                new ChassisDriveToDistanceCommand(distance, speed, chassis))));
+  }
+}
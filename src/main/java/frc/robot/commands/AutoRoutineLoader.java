@@ -0,0 +1,375 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.ConditionalCommand;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
+import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
+import edu.wpi.first.wpilibj2.command.ParallelRaceGroup;
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import edu.wpi.first.wpilibj2.command.WaitCommand;
+import edu.wpi.first.wpilibj2.command.WaitUntilCommand;
+import frc.robot.AllianceService;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmState;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.Schlucker;
+
+/**
+ * Builds autonomous routines from JSON files, so they can be changed between
+ * matches without a code deploy.
+ *
+ * <p>
+ * Each file holds one routine: {@code {"name": "...", "steps": [...]}}. Steps
+ * run in order and each is an object with a {@code type}:
+ *
+ * <ul>
+ * <li>{@code wait}: {@code seconds}
+ * <li>{@code arm}: {@code state} (an {@link ArmState} name), optional
+ * {@code prestage}
+ * <li>{@code waitForShoulder}: {@code below} degrees
+ * <li>{@code requireArm}: {@code state}, cancels the routine unless the arm is
+ * there
+ * <li>{@code intake}: {@code action}, one of {@code cone}, {@code cube},
+ * {@code hold}, {@code eject}, {@code stop}
+ * <li>{@code drive}: {@code distance} and {@code speed}, as
+ * {@link ChassisDriveToDistanceCommand}
+ * <li>{@code path}: {@code start} and {@code end} as {@code [x, y, degrees]},
+ * optional {@code waypoints} as {@code [[x, y], ...]}, optional
+ * {@code resetOdometry}. Written for the blue alliance, the red version is
+ * mirrored at load.
+ * <li>{@code brake}: {@code enabled}
+ * <li>{@code balance}
+ * <li>{@code scoreHigh}: {@code piece}, {@code cone} or {@code cube}
+ * <li>{@code leaveGrid}: {@code distance} and {@code speed}
+ * <li>{@code sequence}, {@code parallel}, {@code race}: {@code steps}
+ * <li>{@code deadline}: {@code deadline} (one step) and {@code steps}
+ * </ul>
+ *
+ * <p>
+ * Everything is checked and every trajectory is generated when the file is
+ * loaded: every value must have the right JSON type, keys a step does not take
+ * are rejected so a misspelling is not silently ignored, and a path the
+ * generator cannot follow is an error. A file with a mistake is reported with
+ * the path to the bad step and left out, the other routines still load.
+ */
+public class AutoRoutineLoader {
+  // Keys each step type takes
+  private static final Map<String, Set<String>> KEYS = Map.ofEntries(
+      Map.entry("wait", stepKeys("seconds")),
+      Map.entry("arm", stepKeys("state", "prestage")),
+      Map.entry("waitForShoulder", stepKeys("below")),
+      Map.entry("requireArm", stepKeys("state")),
+      Map.entry("intake", stepKeys("action")),
+      Map.entry("drive", stepKeys("distance", "speed")),
+      Map.entry("path", stepKeys("start", "end", "waypoints", "resetOdometry")),
+      Map.entry("brake", stepKeys("enabled")),
+      Map.entry("balance", stepKeys()),
+      Map.entry("scoreHigh", stepKeys("piece")),
+      Map.entry("leaveGrid", stepKeys("distance", "speed")),
+      Map.entry("sequence", stepKeys("steps")),
+      Map.entry("parallel", stepKeys("steps")),
+      Map.entry("race", stepKeys("steps")),
+      Map.entry("deadline", stepKeys("deadline", "steps")));
+  private static final Set<String> ROOT_KEYS = Set.of("name", "steps");
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final DriveSubsystem m_chassis;
+  private final Schlucker m_schlucker;
+  private final Arm m_arm;
+
+  public AutoRoutineLoader(DriveSubsystem chassis, Schlucker schlucker, Arm arm) {
+    m_chassis = chassis;
+    m_schlucker = schlucker;
+    m_arm = arm;
+  }
+
+  /** A routine built from a file. */
+  public record Routine(String name, Command command) {
+  }
+
+  /**
+   * Loads every {@code .json} file in a directory, in file name order, keyed by
+   * routine name. Files that fail to load are reported and skipped.
+   */
+  public Map<String, Command> loadAll(File directory) {
+    Map<String, Command> routines = new LinkedHashMap<>();
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(".json"));
+    if (files == null) {
+      return routines;
+    }
+    Arrays.sort(files);
+    for (File file : files) {
+      try {
+        Routine routine = load(file);
+        if (routines.containsKey(routine.name())) {
+          throw new IllegalArgumentException("another file already defines \"" + routine.name() + "\"");
+        }
+        routines.put(routine.name(), routine.command());
+      } catch (IOException | RuntimeException e) {
+        DriverStation.reportError("Could not load auto " + file.getName() + ": " + e.getMessage(), false);
+      }
+    }
+    return routines;
+  }
+
+  /**
+   * Loads one routine.
+   *
+   * @throws IllegalArgumentException if the routine is not valid, with the
+   *                                  path to the bad step in the message
+   */
+  public Routine load(File file) throws IOException {
+    JsonNode root = mapper.readTree(file);
+    if (root == null || !root.isObject()) {
+      throw new IllegalArgumentException("expected an object");
+    }
+    checkKeys(root, ROOT_KEYS, "");
+    String name = text(root, "name", "");
+    Command command = sequence(array(root, "steps", ""), "steps");
+    command.setName(name);
+    return new Routine(name, command);
+  }
+
+  private Command sequence(JsonNode steps, String path) {
+    return new SequentialCommandGroup(build(steps, path));
+  }
+
+  private Command[] build(JsonNode steps, String path) {
+    List<Command> commands = new ArrayList<>();
+    for (int i = 0; i < steps.size(); i++) {
+      commands.add(step(steps.get(i), path + "[" + i + "]"));
+    }
+    return commands.toArray(new Command[0]);
+  }
+
+  private Command step(JsonNode step, String path) {
+    if (!step.isObject()) {
+      throw new IllegalArgumentException(path + ": expected an object");
+    }
+    String type = text(step, "type", path);
+    Set<String> keys = KEYS.get(type);
+    if (keys == null) {
+      throw new IllegalArgumentException(path + ".type: unknown step type \"" + type + "\"");
+    }
+    checkKeys(step, keys, path);
+    try {
+      switch (type) {
+        case "wait":
+          return new WaitCommand(number(step, "seconds", path));
+        case "arm":
+          return new ArmStateCommand(armState(step, path), bool(step, "prestage", false, path), m_arm);
+        case "waitForShoulder":
+          double below = number(step, "below", path);
+          return new WaitUntilCommand(() -> m_arm.getShoulderAngle() < below);
+        case "requireArm":
+          return ArmStateCommand.requireState(armState(step, path), m_arm);
+        case "intake":
+          return intake(step, path);
+        case "drive":
+          return new ChassisDriveToDistanceCommand(number(step, "distance", path), number(step, "speed", path),
+              m_chassis);
+        case "path":
+          return followPath(step, path);
+        case "brake":
+          return new ChassisSetBrakeMode(bool(step, "enabled", true, path), m_chassis);
+        case "balance":
+          return new AutoBalanceRoutine(m_chassis);
+        case "scoreHigh":
+          return new AutoScoreHighCommand(piece(step, path), m_schlucker, m_arm);
+        case "leaveGrid":
+          return new AutoLeaveGridCommand(number(step, "distance", path), number(step, "speed", path), m_chassis,
+              m_schlucker, m_arm);
+        case "sequence":
+          return sequence(array(step, "steps", path), path + ".steps");
+        case "parallel":
+          return new ParallelCommandGroup(build(array(step, "steps", path), path + ".steps"));
+        case "race":
+          return new ParallelRaceGroup(build(array(step, "steps", path), path + ".steps"));
+        case "deadline":
+          JsonNode deadline = step.get("deadline");
+          if (deadline == null) {
+            throw new IllegalArgumentException(path + ".deadline: missing");
+          }
+          return new ParallelDeadlineGroup(step(deadline, path + ".deadline"),
+              build(array(step, "steps", path), path + ".steps"));
+        default:
+          throw new IllegalArgumentException(path + ".type: unknown step type \"" + type + "\"");
+      }
+    } catch (IllegalArgumentException e) {
+      // Groups reject steps that share a subsystem, say where
+      if (e.getMessage() != null && e.getMessage().startsWith(path)) {
+        throw e;
+      }
+      throw new IllegalArgumentException(path + ": " + e.getMessage(), e);
+    }
+  }
+
+  private Command intake(JsonNode step, String path) {
+    String action = text(step, "action", path);
+    switch (action) {
+      case "cone":
+        return new InstantCommand(m_schlucker::intakeCone, m_schlucker);
+      case "cube":
+        return new InstantCommand(m_schlucker::intakeCube, m_schlucker);
+      case "hold":
+        return new InstantCommand(m_schlucker::hold, m_schlucker);
+      case "eject":
+        return new InstantCommand(m_schlucker::eject, m_schlucker);
+      case "stop":
+        return new InstantCommand(m_schlucker::stop, m_schlucker);
+      default:
+        throw new IllegalArgumentException(path + ".action: unknown intake action \"" + action + "\"");
+    }
+  }
+
+  private Command followPath(JsonNode step, String path) {
+    Pose2d start = pose(step, "start", path);
+    Pose2d end = pose(step, "end", path);
+    List<Translation2d> waypoints = new ArrayList<>();
+    JsonNode points = step.path("waypoints");
+    if (!points.isMissingNode() && !points.isArray()) {
+      throw new IllegalArgumentException(path + ".waypoints: expected an array");
+    }
+    for (int i = 0; i < points.size(); i++) {
+      JsonNode point = points.get(i);
+      if (!point.isArray() || point.size() != 2 || !point.get(0).isNumber() || !point.get(1).isNumber()) {
+        throw new IllegalArgumentException(path + ".waypoints[" + i + "]: expected [x, y]");
+      }
+      waypoints.add(new Translation2d(point.get(0).asDouble(), point.get(1).asDouble()));
+    }
+    List<Translation2d> mirroredWaypoints = new ArrayList<>();
+    for (Translation2d waypoint : waypoints) {
+      mirroredWaypoints.add(AllianceService.mirror(waypoint));
+    }
+    boolean reset = bool(step, "resetOdometry", false, path);
+    // Both trajectories are generated here, once, and picked when the step starts
+    return new ConditionalCommand(
+        followPath(AllianceService.mirror(start), mirroredWaypoints, AllianceService.mirror(end), reset, path),
+        followPath(start, waypoints, end, reset, path),
+        AllianceService::isRed);
+  }
+
+  private Command followPath(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reset,
+      String path) {
+    // The generator reports a path it cannot follow and returns one that stands still
+    Trajectory trajectory = DriveSubsystem.generateTrajectory(start, waypoints, end);
+    if (DriveSubsystem.isEmpty(trajectory)) {
+      throw new IllegalArgumentException(path + ": could not generate a trajectory for this path");
+    }
+    Command follow = m_chassis.getDriveCommand(trajectory);
+    if (reset) {
+      return new InstantCommand(() -> m_chassis.resetOdometry(start)).andThen(follow);
+    }
+    return follow;
+  }
+
+  private ArmState armState(JsonNode step, String path) {
+    String state = text(step, "state", path);
+    try {
+      return ArmState.valueOf(state);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(path + ".state: unknown arm state \"" + state + "\"");
+    }
+  }
+
+  private static boolean piece(JsonNode step, String path) {
+    String piece = text(step, "piece", path);
+    if (!piece.equals("cone") && !piece.equals("cube")) {
+      throw new IllegalArgumentException(path + ".piece: expected cone or cube, got \"" + piece + "\"");
+    }
+    return piece.equals("cone");
+  }
+
+  private static Pose2d pose(JsonNode step, String field, String path) {
+    JsonNode pose = step.get(field);
+    if (pose == null || !pose.isArray() || pose.size() != 3) {
+      throw new IllegalArgumentException(path + "." + field + ": expected [x, y, degrees]");
+    }
+    for (JsonNode value : pose) {
+      if (!value.isNumber()) {
+        throw new IllegalArgumentException(path + "." + field + ": expected [x, y, degrees]");
+      }
+    }
+    return new Pose2d(pose.get(0).asDouble(), pose.get(1).asDouble(),
+        Rotation2d.fromDegrees(pose.get(2).asDouble()));
+  }
+
+  private static String text(JsonNode node, String field, String path) {
+    JsonNode value = node.get(field);
+    if (value == null || !value.isTextual()) {
+      throw new IllegalArgumentException(prefix(path) + field + ": expected a string");
+    }
+    return value.asText();
+  }
+
+  private static boolean bool(JsonNode node, String field, boolean defaultValue, String path) {
+    JsonNode value = node.get(field);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (!value.isBoolean()) {
+      throw new IllegalArgumentException(prefix(path) + field + ": expected true or false");
+    }
+    return value.asBoolean();
+  }
+
+  private static Set<String> stepKeys(String... keys) {
+    Set<String> all = new HashSet<>(Arrays.asList(keys));
+    all.add("type");
+    return all;
+  }
+
+  private static void checkKeys(JsonNode node, Set<String> keys, String path) {
+    Iterator<String> names = node.fieldNames();
+    while (names.hasNext()) {
+      String name = names.next();
+      if (!keys.contains(name)) {
+        throw new IllegalArgumentException(prefix(path) + name + ": unknown key");
+      }
+    }
+  }
+
+  private static double number(JsonNode node, String field, String path) {
+    JsonNode value = node.get(field);
+    if (value == null || !value.isNumber()) {
+      throw new IllegalArgumentException(prefix(path) + field + ": expected a number");
+    }
+    return value.asDouble();
+  }
+
+  private static JsonNode array(JsonNode node, String field, String path) {
+    JsonNode value = node.get(field);
+    if (value == null || !value.isArray()) {
+      throw new IllegalArgumentException(prefix(path) + field + ": expected an array");
+    }
+    return value;
+  }
+
+  private static String prefix(String path) {
+    return path.isEmpty() ? "" : path + ".";
+  }
+}
@@ -0,0 +1,44 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import edu.wpi.first.wpilibj2.command.WaitCommand;
+import frc.robot.Constants.AutoConstants;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmState;
+import frc.robot.subsystems.Schlucker;
+
+/**
+ * Scores the preloaded game piece on the high node. The arm starts up as soon
+ * as the intake is holding the piece, and every arm move ends when the joints
+ * reach it rather than after a fixed wait.
+ *
+ * <p>
+ * The piece is only ejected with the arm at {@link ArmState#HIGH}. An arm move
+ * that times out, or an arm that is not there when the eject is due, cancels
+ * the whole routine instead of dropping the piece short of the node.
+ */
+public class AutoScoreHighCommand extends SequentialCommandGroup {
+  /**
+   * @param cone Whether the preload is a cone rather than a cube.
+   */
+  public AutoScoreHighCommand(boolean cone, Schlucker schlucker, Arm arm) {
+    Runnable grip = cone ? schlucker::intakeCone : schlucker::intakeCube;
+    addCommands(
+        new InstantCommand(grip, schlucker),
+        new InstantCommand(schlucker::hold, schlucker),
+        new ArmStateCommand(ArmState.HIGH_APPROACH, arm),
+        new ArmStateCommand(ArmState.HIGH, arm),
+        ArmStateCommand.requireState(ArmState.HIGH, arm),
+        new InstantCommand(schlucker::eject, schlucker),
+        // The eject time is what matters, the arm keeps moving to release after it
+        new ParallelDeadlineGroup(
+            new WaitCommand(AutoConstants.kEjectSeconds),
+            new ArmStateCommand(ArmState.HIGH_RELEASE, arm)));
+  }
+}
@@ -5,11 +5,18 @@
 package frc.robot.commands;
 
 import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 
 public class AutonomousBalanceCommand extends CommandBase {
+  // Shared by every instance, the autos each build their own copy of this command
+  private static final Telemetry.BooleanEntry activeEntry = Telemetry.booleanEntry("Balance/Active", Tier.FULL);
+  private static final Telemetry.DoubleEntry speedEntry = Telemetry.doubleEntry("Balance/Speed", Tier.DASHBOARD);
+  private static final Telemetry.DoubleEntry timerEntry = Telemetry.doubleEntry("Balance/Timer2", Tier.DASHBOARD);
+  private static final Telemetry.DoubleEntry counterRotEntry = Telemetry.doubleEntry("Balance/CounterRot", Tier.DASHBOARD);
+
   DriveSubsystem m_chassis;
   Timer timer;
   double lastPitch;
@@ -33,6 +40,7 @@ public class AutonomousBalanceCommand extends CommandBase {
     timer2.start();
     speed = 0.07;
     moveForward = true;
+    activeEntry.set(true);
   }
 
   // Called every time the scheduler runs while the command is scheduled.
@@ -41,12 +49,9 @@ public class AutonomousBalanceCommand extends CommandBase {
     double pitchVelocity = 0; //m_chassis.getpitchVelocity();
     double pitchSpeed = Math.abs(pitchVelocity);
 
-    SmartDashboard.putNumber("Speed", speed);
-    SmartDashboard.putNumber("Timer2", timer2.get());
-    SmartDashboard.putNumber(
-      "CounterRot", 
-      pitchVelocity * Math.signum(m_chassis.getPitch())
-    );
+    speedEntry.set(speed);
+    timerEntry.set(timer2.get());
+    counterRotEntry.set(pitchVelocity * Math.signum(m_chassis.getPitch()));
     if(pitchSpeed >= 0.3 && timer2.hasElapsed(1)) {
         speed = -0.05;
       moveForward = false;
@@ -71,6 +76,7 @@ public class AutonomousBalanceCommand extends CommandBase {
   @Override
   public void end(boolean interrupted) {
     m_chassis.arcadeDrive(0, 0);
+    activeEntry.set(false);
   }
 
   // Returns true when the command should end.
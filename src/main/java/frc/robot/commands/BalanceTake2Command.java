@@ -6,8 +6,11 @@ package frc.robot.commands;
 
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 
 public class BalanceTake2Command extends CommandBase {
+  private static final Telemetry.BooleanEntry activeEntry = Telemetry.booleanEntry("Balance/Active", Tier.FULL);
 
   DriveSubsystem m_chassis;
   double speed;
@@ -33,6 +36,7 @@ public class BalanceTake2Command extends CommandBase {
     lastPitch = m_chassis.getPitch();
     m_chassis.setBrakemode(true);
     m_chassis.arcadeDrive(speed, 0);
+    activeEntry.set(true);
   }
 
   // Called every time the scheduler runs while the command is scheduled.
@@ -53,6 +57,7 @@ public class BalanceTake2Command extends CommandBase {
   @Override
   public void end(boolean interrupted) {
     m_chassis.arcadeDrive(0, 0);
+    activeEntry.set(false);
   }
 
   // Returns true when the command should end.
@@ -0,0 +1,197 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.controller.HolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.AllianceService;
+import frc.robot.AllianceService.AlliancePair;
+import frc.robot.Constants.AlignConstants;
+import frc.robot.Constants.AutoConstants;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.Vision;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
+
+/**
+ * Drives to the scoring position of the grid node nearest the robot. Nodes are
+ * placed from the grid AprilTags in {@link Vision#getFieldLayout()}: a cube
+ * node straight out from each tag and a cone node to either side.
+ *
+ * <p>
+ * The move is planned from the current pose when the command starts and
+ * followed with a holonomic controller, turning to face the grid on the way.
+ * Pair it with a pre-staging {@link ArmStateCommand} so the arm is ready when
+ * the robot arrives. Ends right away if the field layout could not be loaded.
+ */
+public class ChassisAlignToNodeCommand extends CommandBase {
+  private static final Telemetry.DoubleArrayEntry targetEntry = Telemetry.doubleArrayEntry("Align/Target", 3,
+      Tier.DASHBOARD);
+  // Blue nodes from the tags, red ones mirrored from them
+  private static AlliancePair<List<Pose2d>> nodes;
+
+  private final DriveSubsystem m_chassis;
+  private final ProfiledPIDController thetaController = new ProfiledPIDController(
+      AutoConstants.kPThetaController, 0, 0, AutoConstants.kThetaControllerConstraints);
+  private final HolonomicDriveController controller;
+  private final Timer timer = new Timer();
+
+  private Pose2d target;
+  private Trajectory trajectory;
+  private Trajectory.State finalState;
+
+  public ChassisAlignToNodeCommand(DriveSubsystem chassis) {
+    m_chassis = chassis;
+    thetaController.enableContinuousInput(-Math.PI, Math.PI);
+    controller = new HolonomicDriveController(
+        new PIDController(AutoConstants.kPXController, 0, 0),
+        new PIDController(AutoConstants.kPYController, 0, 0),
+        thetaController);
+    controller.setTolerance(new Pose2d(AlignConstants.kPositionToleranceMeters,
+        AlignConstants.kPositionToleranceMeters, new Rotation2d(AlignConstants.kHeadingToleranceRadians)));
+    addRequirements(m_chassis);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    Pose2d pose = m_chassis.getPose();
+    target = nearestNode(pose);
+    trajectory = null;
+    if (target == null) {
+      return;
+    }
+    targetEntry.set(0, target.getX());
+    targetEntry.set(1, target.getY());
+    targetEntry.set(2, target.getRotation().getRadians());
+
+    // Trajectory poses point the way the robot travels, the heading is followed separately
+    Translation2d delta = target.getTranslation().minus(pose.getTranslation());
+    if (delta.getNorm() > AlignConstants.kPositionToleranceMeters) {
+      Rotation2d direction = delta.getAngle();
+      TrajectoryConfig config = new TrajectoryConfig(
+          AlignConstants.kMaxSpeedMetersPerSecond,
+          AlignConstants.kMaxAccelerationMetersPerSecondSquared)
+          .setKinematics(DriveConstants.kDriveKinematics);
+      trajectory = TrajectoryGenerator.generateTrajectory(
+          new Pose2d(pose.getTranslation(), direction),
+          List.of(),
+          new Pose2d(target.getTranslation(), direction),
+          config);
+    }
+    finalState = new Trajectory.State(0, 0, 0, new Pose2d(target.getTranslation(), new Rotation2d()), 0);
+    thetaController.reset(pose.getRotation().getRadians());
+    timer.reset();
+    timer.start();
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    if (target == null) {
+      return;
+    }
+    double time = timer.get();
+    Trajectory.State state = trajectory != null && time < trajectory.getTotalTimeSeconds()
+        ? trajectory.sample(time)
+        : finalState;
+    m_chassis.setChassisSpeeds(controller.calculate(m_chassis.getPose(), state, target.getRotation()));
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    m_chassis.drive(0, 0, 0, false, false);
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    if (target == null) {
+      return true;
+    }
+    double moveTime = trajectory != null ? trajectory.getTotalTimeSeconds() : 0.0;
+    double time = timer.get();
+    return (time >= moveTime && controller.atReference())
+        || time >= moveTime + AlignConstants.kSettleTimeoutSeconds;
+  }
+
+  /**
+   * Scoring pose of the node nearest {@code pose} on our alliance's grid, or on
+   * either grid when the alliance is not known yet. Null if the field layout
+   * could not be loaded.
+   */
+  public static Pose2d nearestNode(Pose2d pose) {
+    synchronized (ChassisAlignToNodeCommand.class) {
+      if (nodes == null) {
+        AprilTagFieldLayout layout = Vision.getFieldLayout();
+        if (layout == null) {
+          return null;
+        }
+        List<Pose2d> blue = gridNodes(layout, AlignConstants.kBlueGridTags);
+        List<Pose2d> red = new ArrayList<>();
+        for (Pose2d node : blue) {
+          red.add(AllianceService.mirror(node));
+        }
+        nodes = new AlliancePair<>(blue, red);
+      }
+    }
+    List<Pose2d> candidates;
+    if (AllianceService.get() == Alliance.Invalid) {
+      candidates = new ArrayList<>(nodes.blue());
+      candidates.addAll(nodes.red());
+    } else {
+      candidates = nodes.get();
+    }
+
+    Pose2d best = null;
+    double bestDistance = Double.MAX_VALUE;
+    for (Pose2d node : candidates) {
+      double distance = node.getTranslation().getDistance(pose.getTranslation());
+      if (distance < bestDistance) {
+        best = node;
+        bestDistance = distance;
+      }
+    }
+    return best;
+  }
+
+  private static List<Pose2d> gridNodes(AprilTagFieldLayout layout, int[] tags) {
+    List<Pose2d> nodes = new ArrayList<>();
+    for (int id : tags) {
+      Optional<Pose3d> tagPose = layout.getTagPose(id);
+      if (tagPose.isEmpty()) {
+        continue;
+      }
+      Pose2d tag = tagPose.get().toPose2d();
+      // Tags face out of the grid, the robot faces back into it
+      Rotation2d heading = tag.getRotation().plus(
+          Rotation2d.fromRadians(Math.PI + AlignConstants.kScoringHeadingOffsetRadians));
+      for (int side = -1; side <= 1; side++) {
+        Translation2d offset = new Translation2d(AlignConstants.kNodeStandoffMeters,
+            side * AlignConstants.kConeNodeOffsetMeters).rotateBy(tag.getRotation());
+        nodes.add(new Pose2d(tag.getTranslation().plus(offset), heading));
+      }
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,43 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.robot.RobotConfig;
+import frc.robot.subsystems.DriveSubsystem;
+
+/**
+ * Measures new swerve module angular offsets with all wheels pointed straight
+ * forward, applies them and saves them to the per-robot config file. Meant to
+ * be run from the dashboard while disabled.
+ */
+public class ChassisCalibrateOffsetsCommand extends InstantCommand {
+  private final DriveSubsystem m_chassis;
+
+  public ChassisCalibrateOffsetsCommand(DriveSubsystem chassis) {
+    m_chassis = chassis;
+    addRequirements(m_chassis);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    RobotConfig.DriveConfig offsets = m_chassis.calibrateModuleOffsets();
+    RobotConfig.saveOverrides(Map.of(
+        RobotConfig.FRONT_LEFT_OFFSET, Double.toString(offsets.frontLeftOffset()),
+        RobotConfig.FRONT_RIGHT_OFFSET, Double.toString(offsets.frontRightOffset()),
+        RobotConfig.REAR_LEFT_OFFSET, Double.toString(offsets.rearLeftOffset()),
+        RobotConfig.REAR_RIGHT_OFFSET, Double.toString(offsets.rearRightOffset())));
+    DriverStation.reportWarning("Swerve offsets saved: " + offsets, false);
+  }
+
+  @Override
+  public boolean runsWhenDisabled() {
+    return true;
+  }
+}
@@ -0,0 +1,235 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.Constants.ModuleConstants;
+import frc.robot.Constants.SysIdConstants;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.utils.SysIdFile;
+
+/**
+ * Runs the four SysId tests on the swerve modules and saves the data in the
+ * SysId format, for {@code ./gradlew sysid}. Driving tests hold the wheels
+ * straight, turning tests spin the modules in place with the wheels stopped.
+ * Meant to be run from test mode, see {@code RobotContainer.getTestCommand()}.
+ *
+ * <p>
+ * Voltages are set from the robot loop, but samples are taken on a notifier
+ * at {@link SysIdConstants#kSamplePeriod} straight from the sensors, so loop
+ * jitter does not end up in the data. Samples go into arrays allocated when
+ * the command is built and are only written out once all tests are done.
+ *
+ * <p>
+ * Needs about 6 m of clear space in front of and behind the robot for the
+ * driving tests. Files go to {@code sysid/} in the robot's home directory.
+ */
+public class SysIdCommand extends CommandBase {
+  // time, volts, position, velocity
+  private static final int kColumns = 4;
+
+  private final DriveSubsystem m_drive;
+  private final boolean m_turn;
+  private final Timer timer = new Timer();
+  private final Notifier sampler = new Notifier(this::sample);
+
+  // One buffer per test, only touched by the sampler while the tests run
+  private final double[][] buffers = new double[SysIdFile.TESTS.length][];
+  private final int[] counts = new int[SysIdFile.TESTS.length];
+  private double lastSampleTime;
+  private double turnPosition;
+
+  // Written by the robot loop, read by the sampler. -1 while resting.
+  private volatile int activeTest = -1;
+  private volatile double appliedVolts = 0.0;
+
+  private int test;
+  private boolean resting;
+  private Thread saver;
+  private boolean refused;
+
+  /**
+   * @param turn Characterize the turning motors instead of the driving motors.
+   */
+  public SysIdCommand(DriveSubsystem drive, boolean turn) {
+    m_drive = drive;
+    m_turn = turn;
+    sampler.setName(turn ? "SysId Turn" : "SysId Drive");
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new double[(int) Math.ceil(getDuration(i) / SysIdConstants.kSamplePeriod + 50) * kColumns];
+    }
+    addRequirements(m_drive);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    // The buffers are reused, so the previous run has to be written out first.
+    // Waiting for the USB stick here would stall the robot loop, refuse instead.
+    refused = saver != null && saver.isAlive();
+    if (refused) {
+      DriverStation.reportWarning("Still saving the last characterization run, try again in a moment", false);
+      return;
+    }
+    synchronized (this) {
+      Arrays.fill(counts, 0);
+      turnPosition = 0.0;
+      lastSampleTime = Timer.getFPGATimestamp();
+    }
+    m_drive.setCharacterizationFrames(true);
+    test = 0;
+    startTest();
+    sampler.startPeriodic(SysIdConstants.kSamplePeriod);
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    if (refused || test >= SysIdFile.TESTS.length) {
+      return;
+    }
+    double time = timer.get();
+    if (resting) {
+      m_drive.runCharacterization(m_turn, 0.0);
+      if (time >= SysIdConstants.kRestSeconds) {
+        test++;
+        startTest();
+      }
+      return;
+    }
+
+    String name = SysIdFile.TESTS[test];
+    boolean dynamic = name.startsWith("fast");
+    double sign = name.endsWith("forward") ? 1.0 : -1.0;
+    double volts;
+    if (time >= getDuration(test)) {
+      resting = true;
+      activeTest = -1;
+      volts = 0.0;
+      timer.reset();
+    } else if (dynamic) {
+      volts = sign * (m_turn ? SysIdConstants.kTurnStepVolts : SysIdConstants.kDriveStepVolts);
+    } else {
+      volts = sign * time
+          * (m_turn ? SysIdConstants.kTurnRampVoltsPerSecond : SysIdConstants.kDriveRampVoltsPerSecond);
+    }
+    appliedVolts = volts;
+    m_drive.runCharacterization(m_turn, volts);
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    if (refused) {
+      return;
+    }
+    activeTest = -1;
+    sampler.stop();
+    m_drive.runCharacterization(m_turn, 0.0);
+    m_drive.setCharacterizationFrames(false);
+    m_drive.drive(0, 0, 0, false, false);
+
+    // Copy out and write the file off the robot loop
+    saver = new Thread(this::save, "SysId Save");
+    saver.start();
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    return refused || test >= SysIdFile.TESTS.length;
+  }
+
+  private static double getDuration(int test) {
+    return SysIdFile.TESTS[test].startsWith("fast")
+        ? SysIdConstants.kDynamicSeconds
+        : SysIdConstants.kQuasistaticSeconds;
+  }
+
+  private void startTest() {
+    resting = false;
+    appliedVolts = 0.0;
+    activeTest = test < SysIdFile.TESTS.length ? test : -1;
+    timer.reset();
+    timer.start();
+  }
+
+  /** Runs on the notifier. Records the voltage in effect with what it produced. */
+  private synchronized void sample() {
+    double now = Timer.getFPGATimestamp();
+    double velocity = m_drive.readCharacterizationVelocity(m_turn);
+    turnPosition += velocity * (now - lastSampleTime);
+    lastSampleTime = now;
+
+    int current = activeTest;
+    if (current < 0) {
+      return;
+    }
+    double[] buffer = buffers[current];
+    int index = counts[current] * kColumns;
+    if (index + kColumns > buffer.length) {
+      return;
+    }
+    buffer[index] = now;
+    buffer[index + 1] = appliedVolts;
+    buffer[index + 2] = m_turn ? turnPosition : m_drive.readCharacterizationPosition();
+    buffer[index + 3] = velocity;
+    counts[current]++;
+  }
+
+  private synchronized Map<String, List<double[]>> snapshot() {
+    Map<String, List<double[]>> runs = new LinkedHashMap<>();
+    for (int i = 0; i < buffers.length; i++) {
+      if (counts[i] == 0) {
+        continue;
+      }
+      List<double[]> rows = new ArrayList<>(counts[i]);
+      for (int row = 0; row < counts[i]; row++) {
+        double[] copy = new double[kColumns];
+        System.arraycopy(buffers[i], row * kColumns, copy, 0, kColumns);
+        rows.add(copy);
+      }
+      runs.put(SysIdFile.TESTS[i], rows);
+    }
+    return runs;
+  }
+
+  private void save() {
+    Map<String, List<double[]>> runs = snapshot();
+    if (runs.isEmpty()) {
+      return;
+    }
+    File directory = new File(
+        RobotBase.isReal() ? new File("/home/lvuser") : Filesystem.getOperatingDirectory(), "sysid");
+    directory.mkdirs();
+    String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    File file = new File(directory, "sysid_data" + stamp + (m_turn ? "-turn" : "-drive") + ".json");
+    try {
+      if (m_turn) {
+        SysIdFile.write(file, SysIdFile.SIMPLE, "Radians", 2 * Math.PI, runs);
+      } else {
+        SysIdFile.write(file, SysIdFile.SIMPLE, "Meters", ModuleConstants.kWheelCircumferenceMeters, runs);
+      }
+      DriverStation.reportWarning("Saved characterization data to " + file, false);
+    } catch (IOException e) {
+      DriverStation.reportError("Could not save characterization data: " + e.getMessage(), false);
+    }
+  }
+}
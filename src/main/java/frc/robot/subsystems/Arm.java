@@ -1,115 +1,110 @@
 package frc.robot.subsystems;
 
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.math.geometry.Translation2d;
-
-import com.revrobotics.CANSparkMax.ControlType;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.SparkMaxAbsoluteEncoder;
-import com.revrobotics.SparkMaxPIDController;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.SparkMaxAbsoluteEncoder.Type;
+import frc.robot.RobotConfig;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 
 import static frc.robot.Constants.*;
 
 import org.littletonrobotics.junction.Logger;
 
 public class Arm extends SubsystemBase {
-    private static int STALL_CURRENT_LIMIT_SHOULDER = 30;
-    private static int FREE_CURRENT_LIMIT_SHOULDER = 25;
-    private static int SECONDARY_CURRENT_LIMIT_SHOULDER = 35;
-
-    private static int STALL_CURRENT_LIMIT_ELBOW = 40;
-    private static int FREE_CURRENT_LIMIT_ELBOW = 35;
-    private static int SECONDARY_CURRENT_LIMIT_ELBOW = 45;
-
-    private CANSparkMax elbowMotor;
-    private CANSparkMax shoulderMotorRight;
-    private CANSparkMax shoulderMotorLeft;
-    private static SparkMaxAbsoluteEncoder elbowEncoder;
-    private static SparkMaxAbsoluteEncoder shoulderEncoder;
-    private static SparkMaxPIDController elbowPID;
-    private SparkMaxPIDController shoulderPID;
+    private final ArmIO io;
+    private final ArmIO.ArmIOInputs inputs = new ArmIO.ArmIOInputs();
     private double elbowSetpoint;
     private double shoulderSetpoint;
 
-    public Arm() {
-
-        elbowMotor = new CANSparkMax(7, MotorType.kBrushless);
-
-        elbowMotor.restoreFactoryDefaults();
-        elbowMotor.setInverted(true);
-        elbowMotor.setIdleMode(IdleMode.kBrake);
-        elbowMotor.setSmartCurrentLimit(STALL_CURRENT_LIMIT_ELBOW, FREE_CURRENT_LIMIT_ELBOW);
-        elbowMotor.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_ELBOW);
-
-        elbowPID = elbowMotor.getPIDController();
-        elbowEncoder = elbowMotor.getAbsoluteEncoder(Type.kDutyCycle);
-
-        elbowPID.setP(ArmConstants.elbowP);
-        elbowPID.setI(ArmConstants.elbowI);
-        elbowPID.setD(ArmConstants.elbowD);
-
-        elbowPID.setFeedbackDevice(elbowEncoder);
-        elbowPID.setPositionPIDWrappingEnabled(true);
-        elbowPID.setPositionPIDWrappingMinInput(0.0);
-        elbowPID.setPositionPIDWrappingMaxInput(360);
-        elbowEncoder.setPositionConversionFactor(360);
-        elbowEncoder.setInverted(true);
-        elbowMotor.burnFlash();
-
-        shoulderMotorRight = new CANSparkMax(8, MotorType.kBrushless);
-
-        shoulderMotorRight.restoreFactoryDefaults();
-        shoulderMotorRight.setInverted(true);
-        shoulderMotorRight.setIdleMode(IdleMode.kBrake);
-        shoulderMotorRight.setSmartCurrentLimit(STALL_CURRENT_LIMIT_SHOULDER, FREE_CURRENT_LIMIT_SHOULDER);
-        shoulderMotorRight.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_SHOULDER);
-
-        shoulderMotorLeft = new CANSparkMax(9, MotorType.kBrushless);
-
-        shoulderMotorLeft.restoreFactoryDefaults();
-        shoulderMotorLeft.setInverted(false);
-        shoulderMotorLeft.setIdleMode(IdleMode.kBrake);
-        shoulderMotorLeft.setSmartCurrentLimit(STALL_CURRENT_LIMIT_SHOULDER, FREE_CURRENT_LIMIT_SHOULDER);
-        shoulderMotorLeft.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_SHOULDER);
-        shoulderMotorLeft.follow(shoulderMotorRight, true);
-        shoulderMotorLeft.burnFlash();
+    // Last references sent to the motor controllers
+    private double sentShoulderSetpoint = Double.NaN;
+    private double sentElbowSetpoint = Double.NaN;
+    private boolean shoulderProfiled;
+    private boolean elbowProfiled;
+    // Profiled moves through the 0/360 wrap go out as position holds, see crossesWrap()
+    private boolean sentShoulderSmartMotion;
+    private boolean sentElbowSmartMotion;
+    private double sentShoulderFeedforward;
+    private double sentElbowFeedforward;
+    private double lastSendTime;
+    private int shoulderCurrentLimit = (int) ArmConstants.kShoulderCurrentLimit;
+    private int elbowCurrentLimit = (int) ArmConstants.kElbowCurrentLimit;
+    private double accelerationScale = 1.0;
+
+    private RobotConfig.ArmConfig config;
+
+    private final Telemetry.DoubleEntry shoulderAngleEntry = Telemetry.doubleEntry("Arm/Shoulder/Angle", Tier.FULL);
+    private final Telemetry.DoubleEntry shoulderSetpointEntry = Telemetry.doubleEntry("Arm/Shoulder/Setpoint", Tier.FULL);
+    private final Telemetry.DoubleEntry shoulderLeftEntry = Telemetry.doubleEntry("Arm/Shoulder/LeftOutput", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry shoulderRightEntry = Telemetry.doubleEntry("Arm/Shoulder/RightOutput", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry xEntry = Telemetry.doubleEntry("Arm/X", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry yEntry = Telemetry.doubleEntry("Arm/Y", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry elbowAngleEntry = Telemetry.doubleEntry("Arm/Elbow/Angle", Tier.FULL);
+    private final Telemetry.DoubleEntry elbowSetpointEntry = Telemetry.doubleEntry("Arm/Elbow/Setpoint", Tier.FULL);
+    private final Telemetry.DoubleEntry elbowOutputEntry = Telemetry.doubleEntry("Arm/Elbow/Output", Tier.DASHBOARD);
+
+    private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/Arm");
+
+    public Arm(ArmIO io, RobotConfig.ArmConfig config) {
+        this.io = io;
+        this.config = config;
+        // Read the encoders once so setpoints can be seeded before the first periodic
+        io.updateInputs(inputs);
+    }
 
-        shoulderPID = shoulderMotorRight.getPIDController();
-        shoulderEncoder = shoulderMotorRight.getAbsoluteEncoder(Type.kDutyCycle);
-        shoulderEncoder.setInverted(true);
-        shoulderPID.setP(ArmConstants.shoulderP);
-        shoulderPID.setI(ArmConstants.shoulderI);
-        shoulderPID.setD(ArmConstants.shoulderD);
+    public double getShoulderAngle() {
+        return inputs.shoulderAngle;
+    }
 
-        shoulderPID.setFeedbackDevice(shoulderEncoder);
-        shoulderPID.setPositionPIDWrappingEnabled(true);
-        shoulderPID.setPositionPIDWrappingMinInput(0.0);
-        shoulderPID.setPositionPIDWrappingMaxInput(360);
-        shoulderEncoder.setPositionConversionFactor(360);
-        shoulderMotorRight.burnFlash();
+    public double getElbowAngle() {
+        return inputs.elbowAngle;
+    }
 
+    /**
+     * Whether either joint is running a Smart Motion profile towards its
+     * setpoint, rather than holding.
+     */
+    public boolean isMoving() {
+        return shoulderProfiled || elbowProfiled;
     }
 
-    public double getShoulderAngle() {
-        double angle = shoulderEncoder.getPosition();
-        return angle;
+    public double getCurrentAmps() {
+        return inputs.shoulderCurrentAmps + inputs.elbowCurrentAmps;
     }
 
-    public double getElbowAngle() {
-        double angle = elbowEncoder.getPosition();
-        return angle;
+    /**
+     * Changes the joints' stall current limits and scales their profile
+     * acceleration. Only sent to the motor controllers when something changed.
+     */
+    public void setPowerLimits(int shoulderAmps, int elbowAmps, double accelerationScale) {
+        if (shoulderAmps != shoulderCurrentLimit || elbowAmps != elbowCurrentLimit) {
+            io.setCurrentLimits(shoulderAmps, elbowAmps);
+            shoulderCurrentLimit = shoulderAmps;
+            elbowCurrentLimit = elbowAmps;
+        }
+        if (accelerationScale != this.accelerationScale) {
+            io.setAccelerationScale(accelerationScale);
+            this.accelerationScale = accelerationScale;
+        }
     }
 
-    public void setShoulderSetpoint(double setpoint) {
+    /**
+     * Sets the shoulder setpoint, clamped out of the unreachable band.
+     *
+     * @return Whether the setpoint was taken as requested, false if it was
+     *         clamped or rejected by the frame perimeter check.
+     */
+    public boolean setShoulderSetpoint(double setpoint) {
         while (setpoint > 360) {
             setpoint -= 360;
         }
         while (setpoint < 0) {
             setpoint += 360;
         }
+        double requested = setpoint;
 
         if (setpoint < 0 || setpoint > 280) {
 
@@ -122,19 +117,29 @@ public class Arm extends SubsystemBase {
         }
         if (!violatesFramePerimeter(setpoint, getElbowAngle())) {
             shoulderSetpoint = setpoint;
-
+            return setpoint == requested;
         } else {
-            System.out.println("hit limit");
+            if (RobotConfig.get().debug()) {
+                System.out.println("hit limit");
+            }
+            return false;
         }
     }
 
-    public void setElbowSetpoint(double setpoint) {
+    /**
+     * Sets the elbow setpoint, clamped out of the band that hits the frame.
+     *
+     * @return Whether the setpoint was taken as requested, false if it was
+     *         clamped or rejected by the frame perimeter check.
+     */
+    public boolean setElbowSetpoint(double setpoint) {
         while (setpoint > 360) {
             setpoint -= 360;
         }
         while (setpoint < 0) {
             setpoint += 360;
         }
+        double requested = setpoint;
 
         if (setpoint > 15 && setpoint < 180) {
 
@@ -146,9 +151,12 @@ public class Arm extends SubsystemBase {
         }
         if (!violatesFramePerimeter(getShoulderAngle(), setpoint)) {
             elbowSetpoint = setpoint;
-
+            return setpoint == requested;
         } else {
-            System.out.println("hit limit");
+            if (RobotConfig.get().debug()) {
+                System.out.println("hit limit");
+            }
+            return false;
         }
     }
 
@@ -160,6 +168,65 @@ public class Arm extends SubsystemBase {
         return shoulderSetpoint;
     }
 
+    /**
+     * Computes encoder offsets that make the current pose read as the given
+     * reference state, applies them and returns them so they can be saved. The
+     * arm has to be resting in the reference pose when this is called.
+     */
+    public RobotConfig.ArmConfig calibrateOffsets(ArmState reference) {
+        // Reported angle = raw angle - offset, so the raw angle is the reading plus
+        // the offset currently applied
+        double shoulderOffset = MathUtil.inputModulus(
+                getShoulderAngle() + config.shoulderEncoderOffset() - reference.shoulderAngle, 0, 360);
+        double elbowOffset = MathUtil.inputModulus(
+                getElbowAngle() + config.elbowEncoderOffset() - reference.elbowAngle, 0, 360);
+        config = new RobotConfig.ArmConfig(shoulderOffset, elbowOffset);
+        io.setEncoderOffsets(shoulderOffset, elbowOffset);
+
+        // The arm is sitting at the reference pose, hold it there instead of
+        // jumping to setpoints measured with the old offsets
+        shoulderSetpoint = reference.shoulderAngle;
+        elbowSetpoint = reference.elbowAngle;
+        return config;
+    }
+
+    /**
+     * Returns the named state closest to where the arm is right now.
+     */
+    public ArmState getState() {
+        return ArmState.nearest(getShoulderAngle(), getElbowAngle());
+    }
+
+    /**
+     * Commands both joints towards a named state.
+     *
+     * @return Whether both setpoints now match the state. False when either was
+     *         clamped or rejected, in which case the arm is not heading there.
+     */
+    public boolean setState(ArmState state) {
+        boolean shoulder = setShoulderSetpoint(state.shoulderAngle);
+        boolean elbow = setElbowSetpoint(state.elbowAngle);
+        return shoulder && elbow;
+    }
+
+    /**
+     * Whether both joints are within the given tolerance of their setpoints.
+     */
+    public boolean atSetpoint(double toleranceDegrees) {
+        return Math.abs(ArmState.angleError(shoulderSetpoint, getShoulderAngle())) < toleranceDegrees
+                && Math.abs(ArmState.angleError(elbowSetpoint, getElbowAngle())) < toleranceDegrees;
+    }
+
+    /**
+     * Whether the setpoints are the given state's and both joints are within
+     * the given tolerance of it.
+     */
+    public boolean atState(ArmState state, double toleranceDegrees) {
+        return ArmState.angleError(state.shoulderAngle, shoulderSetpoint) == 0
+                && ArmState.angleError(state.elbowAngle, elbowSetpoint) == 0
+                && atSetpoint(toleranceDegrees);
+    }
+
     public Translation2d getArmPosition(double shoulder_Angle, double elbow_Angle) {
         // 105 is when its 6 inches off
 
@@ -185,20 +252,106 @@ public class Arm extends SubsystemBase {
 
     }
 
+    /**
+     * Volts needed on the shoulder to hold both links against gravity at the
+     * given encoder angles.
+     */
+    public static double shoulderFeedforward(double shoulder_Angle, double elbow_Angle) {
+        double upperArm = Math.toRadians(180 - shoulder_Angle);
+        double forearm = upperArm + Math.toRadians(elbow_Angle);
+        // Positive shoulder output lowers the upper arm's angle from horizontal
+        return -(ArmConstants.kShoulderGravityVolts * Math.cos(upperArm)
+                + ArmConstants.kShoulderForearmGravityVolts * Math.cos(forearm));
+    }
+
+    /**
+     * Volts needed on the elbow to hold the forearm against gravity at the given
+     * encoder angles.
+     */
+    public static double elbowFeedforward(double shoulder_Angle, double elbow_Angle) {
+        double forearm = Math.toRadians(180 - shoulder_Angle + elbow_Angle);
+        return ArmConstants.kElbowGravityVolts * Math.cos(forearm);
+    }
+
     @Override
     public void periodic() {
-        Logger logger = Logger.getInstance();
-        logger.recordOutput("Arm/Shoulder/Angle", getShoulderAngle());
-        logger.recordOutput("Arm/Shoulder/Setpoint", shoulderSetpoint);
-        logger.recordOutput("Arm/Shoulder/LeftOutput", shoulderMotorRight.getAppliedOutput());
-        logger.recordOutput("Arm/Shoulder/RightOutput", shoulderMotorLeft.getAppliedOutput());
-        logger.recordOutput("Arm/X", getArmPosition(getShoulderAngle(), getElbowAngle()).getX());
-        logger.recordOutput("Arm/Y", getArmPosition(getShoulderAngle(), getElbowAngle()).getY());
-        logger.recordOutput("Arm/Elbow/Angle", getElbowAngle());
-        logger.recordOutput("Arm/Elbow/Setpoint", elbowSetpoint);
-        logger.recordOutput("Arm/Elbow/Output", elbowMotor.getAppliedOutput());
-
-        elbowPID.setReference(elbowSetpoint, ControlType.kPosition);
-        shoulderPID.setReference(shoulderSetpoint, ControlType.kPosition);
+        profile.start();
+        io.updateInputs(inputs);
+        Logger.getInstance().processInputs("Arm", inputs);
+
+        Translation2d position = getArmPosition(getShoulderAngle(), getElbowAngle());
+        shoulderAngleEntry.set(getShoulderAngle());
+        shoulderSetpointEntry.set(shoulderSetpoint);
+        shoulderLeftEntry.set(inputs.shoulderLeftOutput);
+        shoulderRightEntry.set(inputs.shoulderRightOutput);
+        xEntry.set(position.getX());
+        yEntry.set(position.getY());
+        elbowAngleEntry.set(getElbowAngle());
+        elbowSetpointEntry.set(elbowSetpoint);
+        elbowOutputEntry.set(inputs.elbowOutput);
+
+        sendReferences();
+        profile.stop();
+    }
+
+    /**
+     * Whether a joint should run a profile rather than hold, with hysteresis: a
+     * profile runs until the joint is inside {@link ArmConstants#kHoldEnterDegrees}
+     * and a hold lasts until it is outside {@link ArmConstants#kHoldExitDegrees}.
+     */
+    public static boolean selectProfiled(boolean profiled, double setpoint, double angle) {
+        double error = Math.abs(ArmState.angleError(setpoint, angle));
+        return profiled ? error > ArmConstants.kHoldEnterDegrees : error > ArmConstants.kHoldExitDegrees;
+    }
+
+    /**
+     * Whether the short way from the angle to the setpoint passes through the
+     * encoders' 0/360 wrap. Position PID wraps there, but it is not confirmed
+     * that Smart Motion does: if it does not, it would go the long way, through
+     * the forbidden band. Such moves are sent as position holds instead.
+     */
+    public static boolean crossesWrap(double setpoint, double angle) {
+        double end = angle + ArmState.angleError(setpoint, angle);
+        return end < 0 || end >= 360;
+    }
+
+    /**
+     * Sends references to the motor controllers only when something they need
+     * has changed: the target, the switch between profiling and holding, or a
+     * noticeable change in gravity feedforward.
+     */
+    private void sendReferences() {
+        double now = Timer.getFPGATimestamp();
+        boolean refresh = now - lastSendTime > ArmConstants.kReferenceRefreshSeconds;
+
+        boolean shoulderProfile = selectProfiled(shoulderProfiled, shoulderSetpoint, getShoulderAngle());
+        boolean shoulderSmartMotion = shoulderProfile && !crossesWrap(shoulderSetpoint, getShoulderAngle());
+        double shoulderFF = shoulderFeedforward(getShoulderAngle(), getElbowAngle());
+        if (refresh || shoulderSetpoint != sentShoulderSetpoint || shoulderProfile != shoulderProfiled
+                || shoulderSmartMotion != sentShoulderSmartMotion
+                || Math.abs(shoulderFF - sentShoulderFeedforward) > ArmConstants.kFeedforwardResendVolts) {
+            io.setShoulderReference(shoulderSetpoint, shoulderSmartMotion, shoulderFF);
+            sentShoulderSetpoint = shoulderSetpoint;
+            shoulderProfiled = shoulderProfile;
+            sentShoulderSmartMotion = shoulderSmartMotion;
+            sentShoulderFeedforward = shoulderFF;
+        }
+
+        boolean elbowProfile = selectProfiled(elbowProfiled, elbowSetpoint, getElbowAngle());
+        boolean elbowSmartMotion = elbowProfile && !crossesWrap(elbowSetpoint, getElbowAngle());
+        double elbowFF = elbowFeedforward(getShoulderAngle(), getElbowAngle());
+        if (refresh || elbowSetpoint != sentElbowSetpoint || elbowProfile != elbowProfiled
+                || elbowSmartMotion != sentElbowSmartMotion
+                || Math.abs(elbowFF - sentElbowFeedforward) > ArmConstants.kFeedforwardResendVolts) {
+            io.setElbowReference(elbowSetpoint, elbowSmartMotion, elbowFF);
+            sentElbowSetpoint = elbowSetpoint;
+            elbowProfiled = elbowProfile;
+            sentElbowSmartMotion = elbowSmartMotion;
+            sentElbowFeedforward = elbowFF;
+        }
+
+        if (refresh) {
+            lastSendTime = now;
+        }
     }
 }
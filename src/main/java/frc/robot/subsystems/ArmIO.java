@@ -0,0 +1,81 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Hardware interface for the arm. Angles are in degrees as reported by the
+ * absolute encoders, velocities in degrees per second.
+ */
+public interface ArmIO {
+    public static class ArmIOInputs implements LoggableInputs {
+        public double shoulderAngle = 0.0;
+        public double shoulderVelocity = 0.0;
+        public double shoulderRightOutput = 0.0;
+        public double shoulderLeftOutput = 0.0;
+        public double shoulderCurrentAmps = 0.0;
+
+        public double elbowAngle = 0.0;
+        public double elbowVelocity = 0.0;
+        public double elbowOutput = 0.0;
+        public double elbowCurrentAmps = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("ShoulderAngle", shoulderAngle);
+            table.put("ShoulderVelocity", shoulderVelocity);
+            table.put("ShoulderRightOutput", shoulderRightOutput);
+            table.put("ShoulderLeftOutput", shoulderLeftOutput);
+            table.put("ShoulderCurrentAmps", shoulderCurrentAmps);
+            table.put("ElbowAngle", elbowAngle);
+            table.put("ElbowVelocity", elbowVelocity);
+            table.put("ElbowOutput", elbowOutput);
+            table.put("ElbowCurrentAmps", elbowCurrentAmps);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            shoulderAngle = table.getDouble("ShoulderAngle", shoulderAngle);
+            shoulderVelocity = table.getDouble("ShoulderVelocity", shoulderVelocity);
+            shoulderRightOutput = table.getDouble("ShoulderRightOutput", shoulderRightOutput);
+            shoulderLeftOutput = table.getDouble("ShoulderLeftOutput", shoulderLeftOutput);
+            shoulderCurrentAmps = table.getDouble("ShoulderCurrentAmps", shoulderCurrentAmps);
+            elbowAngle = table.getDouble("ElbowAngle", elbowAngle);
+            elbowVelocity = table.getDouble("ElbowVelocity", elbowVelocity);
+            elbowOutput = table.getDouble("ElbowOutput", elbowOutput);
+            elbowCurrentAmps = table.getDouble("ElbowCurrentAmps", elbowCurrentAmps);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(ArmIOInputs inputs) {
+    }
+
+    /**
+     * Sends a new shoulder target to the on-controller loop. When
+     * {@code profiled} is set the controller runs a Smart Motion profile to get
+     * there, otherwise it holds position. The feedforward is applied on top as
+     * arbitrary feedforward in volts.
+     */
+    public default void setShoulderReference(double degrees, boolean profiled, double feedforwardVolts) {
+    }
+
+    /**
+     * Sets the absolute encoder zero offsets, in degrees. Applied until the
+     * controllers power cycle, the constructor applies the saved values at boot.
+     */
+    public default void setEncoderOffsets(double shoulderOffset, double elbowOffset) {
+    }
+
+    /** Sends a new elbow target to the on-controller loop, see {@link #setShoulderReference}. */
+    public default void setElbowReference(double degrees, boolean profiled, double feedforwardVolts) {
+    }
+
+    /** Changes the stall current limits of each shoulder motor and the elbow motor, in amps. */
+    public default void setCurrentLimits(int shoulderAmps, int elbowAmps) {
+    }
+
+    /** Scales the Smart Motion acceleration of both joints, 1 being the configured value. */
+    public default void setAccelerationScale(double scale) {
+    }
+}
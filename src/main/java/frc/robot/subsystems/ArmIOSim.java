@@ -0,0 +1,295 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import frc.robot.RobotConfig;
+
+import static frc.robot.Constants.*;
+
+/**
+ * Double-jointed arm physics model for desktop simulation.
+ *
+ * <p>
+ * The arm is modeled as two uniform rods driven through their gearboxes by NEO
+ * motor models, with gravity and the coupling between joints included. The
+ * SPARK MAX Smart Motion and position loops are emulated at their native 1 kHz
+ * rate using the same gains, limits, wrapping and output range as the real
+ * controllers, so presets and profiles tuned here carry over.
+ *
+ * <p>
+ * Internally the upper arm angle is measured from horizontal (forward, y up)
+ * and the forearm angle relative to the upper arm, matching the geometry in
+ * {@link Arm#getArmPosition}. This class makes no HAL calls, so it can also be
+ * stepped faster than real time from plain Java.
+ *
+ * <p>
+ * Encoder offsets behave like the real ones. The model reads true with the
+ * offsets it was built with, and changing them shifts every reported angle,
+ * so calibrating in simulation leaves the model and the saved config agreeing.
+ */
+public class ArmIOSim implements ArmIO {
+    private static final double kControllerPeriodSecs = 0.001;
+    private static final double kLoopPeriodSecs = 0.02;
+    private static final double kGravity = 9.81;
+
+    private final DCMotor shoulderMotor = DCMotor.getNEO(ArmConstants.kShoulderMotorCount);
+    private final DCMotor elbowMotor = DCMotor.getNEO(1);
+
+    private final double l1 = Units.inchesToMeters(ARM_SHOULDER_LENGTH);
+    private final double l2 = Units.inchesToMeters(ARM_ELBOW_LENGTH);
+    private final double r1 = l1 / 2;
+    private final double r2 = l2 / 2;
+    private final double m1 = ArmConstants.kShoulderMassKg;
+    private final double m2 = ArmConstants.kElbowMassKg;
+    private final double i1 = m1 * l1 * l1 / 12;
+    private final double i2 = m2 * l2 * l2 / 12;
+
+    // Joint state, radians and radians per second
+    private double q1;
+    private double q2;
+    private double qd1;
+    private double qd2;
+
+    private final SimulatedController shoulderController = new SimulatedController(
+            ArmConstants.shoulderP, ArmConstants.shoulderI, ArmConstants.shoulderD,
+            ArmConstants.shoulderSmartMotionP, ArmConstants.shoulderSmartMotionFF,
+            ArmConstants.kShoulderMaxVelocity, ArmConstants.kShoulderMaxAcceleration);
+    private final SimulatedController elbowController = new SimulatedController(
+            ArmConstants.elbowP, ArmConstants.elbowI, ArmConstants.elbowD,
+            ArmConstants.elbowSmartMotionP, ArmConstants.elbowSmartMotionFF,
+            ArmConstants.kElbowMaxVelocity, ArmConstants.kElbowMaxAcceleration);
+
+    private double shoulderCurrentLimit = ArmConstants.kShoulderCurrentLimit;
+    private double elbowCurrentLimit = ArmConstants.kElbowCurrentLimit;
+
+    private double shoulderOutput;
+    private double elbowOutput;
+    private double shoulderCurrent;
+    private double elbowCurrent;
+
+    // Degrees, the model reads true while the applied offsets equal the boot ones
+    private double bootShoulderOffset = 0.0;
+    private double bootElbowOffset = 0.0;
+    private double shoulderOffset = 0.0;
+    private double elbowOffset = 0.0;
+
+    public ArmIOSim() {
+        this(ArmState.STOW.shoulderAngle, ArmState.STOW.elbowAngle);
+    }
+
+    /** Starts the model at the given encoder angles, holding position. */
+    public ArmIOSim(double shoulderAngle, double elbowAngle) {
+        q1 = Math.toRadians(180 - shoulderAngle);
+        q2 = Math.toRadians(elbowAngle);
+        shoulderController.setReference(shoulderAngle, false, 0, shoulderAngle, 0);
+        elbowController.setReference(elbowAngle, false, 0, elbowAngle, 0);
+    }
+
+    /** Starts the model at stow with the encoder offsets applied at boot. */
+    public ArmIOSim(RobotConfig.ArmConfig config) {
+        this();
+        bootShoulderOffset = config.shoulderEncoderOffset();
+        bootElbowOffset = config.elbowEncoderOffset();
+        shoulderOffset = bootShoulderOffset;
+        elbowOffset = bootElbowOffset;
+    }
+
+    @Override
+    public void updateInputs(ArmIOInputs inputs) {
+        step(kLoopPeriodSecs);
+
+        inputs.shoulderAngle = getShoulderAngle();
+        inputs.shoulderVelocity = -Math.toDegrees(qd1);
+        inputs.shoulderRightOutput = shoulderOutput;
+        inputs.shoulderLeftOutput = shoulderOutput;
+        inputs.shoulderCurrentAmps = Math.abs(shoulderCurrent);
+
+        inputs.elbowAngle = getElbowAngle();
+        inputs.elbowVelocity = Math.toDegrees(qd2);
+        inputs.elbowOutput = elbowOutput;
+        inputs.elbowCurrentAmps = Math.abs(elbowCurrent);
+    }
+
+    @Override
+    public void setShoulderReference(double degrees, boolean profiled, double feedforwardVolts) {
+        shoulderController.setReference(degrees, profiled, feedforwardVolts, getShoulderAngle(),
+                -Math.toDegrees(qd1));
+    }
+
+    @Override
+    public void setElbowReference(double degrees, boolean profiled, double feedforwardVolts) {
+        elbowController.setReference(degrees, profiled, feedforwardVolts, getElbowAngle(),
+                Math.toDegrees(qd2));
+    }
+
+    /** Shoulder angle as the absolute encoder would report it. */
+    public double getShoulderAngle() {
+        return MathUtil.inputModulus(180 - Math.toDegrees(q1) + bootShoulderOffset - shoulderOffset, 0, 360);
+    }
+
+    /** Elbow angle as the absolute encoder would report it. */
+    public double getElbowAngle() {
+        return MathUtil.inputModulus(Math.toDegrees(q2) + bootElbowOffset - elbowOffset, 0, 360);
+    }
+
+    @Override
+    public void setEncoderOffsets(double shoulderOffset, double elbowOffset) {
+        // Reported angle = raw angle - offset, same as the SPARK MAX
+        this.shoulderOffset = shoulderOffset;
+        this.elbowOffset = elbowOffset;
+    }
+
+    @Override
+    public void setCurrentLimits(int shoulderAmps, int elbowAmps) {
+        shoulderCurrentLimit = shoulderAmps;
+        elbowCurrentLimit = elbowAmps;
+    }
+
+    @Override
+    public void setAccelerationScale(double scale) {
+        shoulderController.accelerationScale = scale;
+        elbowController.accelerationScale = scale;
+    }
+
+    /** Advances the model by the given time using 1 ms substeps. */
+    public void step(double seconds) {
+        int steps = (int) Math.round(seconds / kControllerPeriodSecs);
+        for (int i = 0; i < steps; i++) {
+            substep(kControllerPeriodSecs);
+        }
+    }
+
+    private void substep(double dt) {
+        // On-controller loops, in encoder units
+        shoulderOutput = shoulderController.calculate(getShoulderAngle(), -Math.toDegrees(qd1), dt);
+        elbowOutput = elbowController.calculate(getElbowAngle(), Math.toDegrees(qd2), dt);
+
+        // Motor torques at the joints. Positive output moves each encoder in its
+        // positive direction, which is opposite to q1 for the shoulder.
+        double shoulderSpeed = -qd1 * ArmConstants.kShoulderGearing;
+        shoulderCurrent = MathUtil.clamp(
+                shoulderMotor.getCurrent(shoulderSpeed, shoulderOutput * ArmConstants.kNominalVoltage),
+                -shoulderCurrentLimit * ArmConstants.kShoulderMotorCount,
+                shoulderCurrentLimit * ArmConstants.kShoulderMotorCount);
+        double tau1 = -shoulderMotor.getTorque(shoulderCurrent) * ArmConstants.kShoulderGearing;
+
+        double elbowSpeed = qd2 * ArmConstants.kElbowGearing;
+        elbowCurrent = MathUtil.clamp(
+                elbowMotor.getCurrent(elbowSpeed, elbowOutput * ArmConstants.kNominalVoltage),
+                -elbowCurrentLimit, elbowCurrentLimit);
+        double tau2 = elbowMotor.getTorque(elbowCurrent) * ArmConstants.kElbowGearing;
+
+        // Manipulator equation M(q) qdd + C(q, qd) qd + G(q) = tau
+        double c2 = Math.cos(q2);
+        double s2 = Math.sin(q2);
+        double coupling = m2 * l1 * r2;
+
+        double m11 = m1 * r1 * r1 + m2 * (l1 * l1 + r2 * r2) + i1 + i2 + 2 * coupling * c2;
+        double m12 = m2 * r2 * r2 + i2 + coupling * c2;
+        double m22 = m2 * r2 * r2 + i2;
+
+        double h1 = -coupling * s2 * (2 * qd1 * qd2 + qd2 * qd2);
+        double h2 = coupling * s2 * qd1 * qd1;
+
+        double g1 = kGravity * ((m1 * r1 + m2 * l1) * Math.cos(q1) + m2 * r2 * Math.cos(q1 + q2));
+        double g2 = kGravity * m2 * r2 * Math.cos(q1 + q2);
+
+        double b1 = tau1 - h1 - g1 - ArmConstants.kJointDamping * qd1;
+        double b2 = tau2 - h2 - g2 - ArmConstants.kJointDamping * qd2;
+
+        double det = m11 * m22 - m12 * m12;
+        double qdd1 = (m22 * b1 - m12 * b2) / det;
+        double qdd2 = (m11 * b2 - m12 * b1) / det;
+
+        // Semi-implicit Euler
+        qd1 += qdd1 * dt;
+        qd2 += qdd2 * dt;
+        q1 += qd1 * dt;
+        q2 += qd2 * dt;
+    }
+
+    /**
+     * SPARK MAX style closed loop. In hold mode the position gains act on
+     * degrees of error per 1 ms cycle, with wrapping over 0-360. In profiled
+     * mode a trapezoidal Smart Motion profile is stepped towards the reference
+     * and the velocity gains track it. The profile takes the wrapped short way,
+     * which is not confirmed for the real firmware, so {@code Arm} never sends
+     * a profiled move through the wrap. Arbitrary feedforward is added in volts
+     * and the output is clamped to [-1, 1].
+     */
+    private static class SimulatedController {
+        private final double kP;
+        private final double kI;
+        private final double kD;
+        private final double kVelocityP;
+        private final double kVelocityFF;
+        private final double maxVelocity;
+        private final double maxAcceleration;
+        private double reference;
+        private boolean profiled;
+        private double feedforwardVolts;
+        private double integral;
+        private double lastError;
+        private double profilePosition;
+        private double profileVelocity;
+        private double accelerationScale = 1.0;
+
+        SimulatedController(double kP, double kI, double kD, double kVelocityP, double kVelocityFF,
+                double maxVelocity, double maxAcceleration) {
+            this.kP = kP;
+            this.kI = kI;
+            this.kD = kD;
+            this.kVelocityP = kVelocityP;
+            this.kVelocityFF = kVelocityFF;
+            this.maxVelocity = maxVelocity;
+            this.maxAcceleration = maxAcceleration;
+        }
+
+        void setReference(double degrees, boolean profiled, double feedforwardVolts, double position,
+                double velocity) {
+            // A new Smart Motion command starts its profile from the current state
+            if (profiled && (!this.profiled || degrees != reference)) {
+                profilePosition = position;
+                profileVelocity = velocity;
+            }
+            this.reference = degrees;
+            this.profiled = profiled;
+            this.feedforwardVolts = feedforwardVolts;
+        }
+
+        double calculate(double position, double velocity, double dt) {
+            double output;
+            if (profiled) {
+                stepProfile(dt);
+                output = kVelocityFF * profileVelocity + kVelocityP * (profileVelocity - velocity);
+            } else {
+                double error = MathUtil.inputModulus(reference - position, -180, 180);
+                integral += error;
+                output = kP * error + kI * integral + kD * (error - lastError);
+                lastError = error;
+            }
+            return MathUtil.clamp(output + feedforwardVolts / ArmConstants.kNominalVoltage, -1, 1);
+        }
+
+        private void stepProfile(double dt) {
+            double error = MathUtil.inputModulus(reference - profilePosition, -180, 180);
+            double direction = Math.signum(error);
+            double maxAcceleration = this.maxAcceleration * accelerationScale;
+            double stoppingDistance = profileVelocity * profileVelocity / (2 * maxAcceleration);
+            if (Math.abs(error) <= stoppingDistance && Math.signum(profileVelocity) == direction) {
+                double slower = profileVelocity - direction * maxAcceleration * dt;
+                profileVelocity = Math.signum(slower) == direction ? slower : 0;
+            } else {
+                profileVelocity = MathUtil.clamp(profileVelocity + direction * maxAcceleration * dt,
+                        -maxVelocity, maxVelocity);
+            }
+            if (Math.abs(error) < Math.abs(profileVelocity * dt)) {
+                profilePosition = reference;
+                profileVelocity = 0;
+            } else {
+                profilePosition = MathUtil.inputModulus(profilePosition + profileVelocity * dt, 0, 360);
+            }
+        }
+    }
+}
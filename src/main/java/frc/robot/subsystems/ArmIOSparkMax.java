@@ -0,0 +1,201 @@
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.SparkMaxAbsoluteEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.AccelStrategy;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.SparkMaxAbsoluteEncoder.Type;
+
+import frc.robot.RobotConfig;
+
+import static frc.robot.Constants.*;
+
+/**
+ * Arm hardware: one NEO on the elbow and two NEOs on the shoulder, each joint
+ * closing its loops on a through-bore absolute encoder.
+ *
+ * <p>
+ * Moves run as Smart Motion profiles on the SPARK MAX (slot 1) and the final
+ * hold uses the position gains (slot 0), so the inner loops run at the
+ * controller's 1 kHz rate and the roboRIO only sends targets when they change.
+ * The velocity conversion factor puts Smart Motion limits in degrees per
+ * second. Position PID wraps over 0-360; whether Smart Motion does too is not
+ * confirmed, so {@code Arm} sends moves through the wrap as position holds.
+ */
+public class ArmIOSparkMax implements ArmIO {
+    private static int STALL_CURRENT_LIMIT_SHOULDER = 30;
+    private static int FREE_CURRENT_LIMIT_SHOULDER = 25;
+    private static int SECONDARY_CURRENT_LIMIT_SHOULDER = 35;
+
+    private static int STALL_CURRENT_LIMIT_ELBOW = 40;
+    private static int FREE_CURRENT_LIMIT_ELBOW = 35;
+    private static int SECONDARY_CURRENT_LIMIT_ELBOW = 45;
+
+    private CANSparkMax elbowMotor;
+    private CANSparkMax shoulderMotorRight;
+    private CANSparkMax shoulderMotorLeft;
+    private SparkMaxAbsoluteEncoder elbowEncoder;
+    private SparkMaxAbsoluteEncoder shoulderEncoder;
+    private SparkMaxPIDController elbowPID;
+    private SparkMaxPIDController shoulderPID;
+
+    public ArmIOSparkMax(RobotConfig.ArmConfig config) {
+
+        elbowMotor = new CANSparkMax(7, MotorType.kBrushless);
+
+        elbowMotor.restoreFactoryDefaults();
+        elbowMotor.setInverted(true);
+        elbowMotor.setIdleMode(IdleMode.kBrake);
+        elbowMotor.setSmartCurrentLimit(STALL_CURRENT_LIMIT_ELBOW, FREE_CURRENT_LIMIT_ELBOW);
+        elbowMotor.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_ELBOW);
+
+        elbowPID = elbowMotor.getPIDController();
+        elbowEncoder = elbowMotor.getAbsoluteEncoder(Type.kDutyCycle);
+
+        elbowPID.setP(ArmConstants.elbowP);
+        elbowPID.setI(ArmConstants.elbowI);
+        elbowPID.setD(ArmConstants.elbowD);
+
+        // Smart Motion gains act on velocity, see ArmConstants
+        elbowPID.setP(ArmConstants.elbowSmartMotionP, ArmConstants.kSmartMotionSlot);
+        elbowPID.setFF(ArmConstants.elbowSmartMotionFF, ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionMaxVelocity(ArmConstants.kElbowMaxVelocity, ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionMaxAccel(ArmConstants.kElbowMaxAcceleration, ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionMinOutputVelocity(0, ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionAllowedClosedLoopError(ArmConstants.kSmartMotionAllowedErrorDegrees,
+                ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionAccelStrategy(AccelStrategy.kTrapezoidal, ArmConstants.kSmartMotionSlot);
+
+        elbowPID.setFeedbackDevice(elbowEncoder);
+        elbowPID.setPositionPIDWrappingEnabled(true);
+        elbowPID.setPositionPIDWrappingMinInput(0.0);
+        elbowPID.setPositionPIDWrappingMaxInput(360);
+        elbowEncoder.setPositionConversionFactor(360);
+        elbowEncoder.setVelocityConversionFactor(360.0 / 60.0);
+        elbowEncoder.setInverted(true);
+        elbowEncoder.setZeroOffset(config.elbowEncoderOffset());
+        elbowMotor.burnFlash();
+
+        shoulderMotorRight = new CANSparkMax(8, MotorType.kBrushless);
+
+        shoulderMotorRight.restoreFactoryDefaults();
+        shoulderMotorRight.setInverted(true);
+        shoulderMotorRight.setIdleMode(IdleMode.kBrake);
+        shoulderMotorRight.setSmartCurrentLimit(STALL_CURRENT_LIMIT_SHOULDER, FREE_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorRight.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_SHOULDER);
+
+        shoulderMotorLeft = new CANSparkMax(9, MotorType.kBrushless);
+
+        shoulderMotorLeft.restoreFactoryDefaults();
+        shoulderMotorLeft.setInverted(false);
+        shoulderMotorLeft.setIdleMode(IdleMode.kBrake);
+        shoulderMotorLeft.setSmartCurrentLimit(STALL_CURRENT_LIMIT_SHOULDER, FREE_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorLeft.setSecondaryCurrentLimit(SECONDARY_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorLeft.follow(shoulderMotorRight, true);
+        shoulderMotorLeft.burnFlash();
+
+        shoulderPID = shoulderMotorRight.getPIDController();
+        shoulderEncoder = shoulderMotorRight.getAbsoluteEncoder(Type.kDutyCycle);
+        shoulderEncoder.setInverted(true);
+        shoulderPID.setP(ArmConstants.shoulderP);
+        shoulderPID.setI(ArmConstants.shoulderI);
+        shoulderPID.setD(ArmConstants.shoulderD);
+
+        // Smart Motion gains act on velocity, see ArmConstants
+        shoulderPID.setP(ArmConstants.shoulderSmartMotionP, ArmConstants.kSmartMotionSlot);
+        shoulderPID.setFF(ArmConstants.shoulderSmartMotionFF, ArmConstants.kSmartMotionSlot);
+        shoulderPID.setSmartMotionMaxVelocity(ArmConstants.kShoulderMaxVelocity, ArmConstants.kSmartMotionSlot);
+        shoulderPID.setSmartMotionMaxAccel(ArmConstants.kShoulderMaxAcceleration, ArmConstants.kSmartMotionSlot);
+        shoulderPID.setSmartMotionMinOutputVelocity(0, ArmConstants.kSmartMotionSlot);
+        shoulderPID.setSmartMotionAllowedClosedLoopError(ArmConstants.kSmartMotionAllowedErrorDegrees,
+                ArmConstants.kSmartMotionSlot);
+        shoulderPID.setSmartMotionAccelStrategy(AccelStrategy.kTrapezoidal, ArmConstants.kSmartMotionSlot);
+
+        shoulderPID.setFeedbackDevice(shoulderEncoder);
+        shoulderPID.setPositionPIDWrappingEnabled(true);
+        shoulderPID.setPositionPIDWrappingMinInput(0.0);
+        shoulderPID.setPositionPIDWrappingMaxInput(360);
+        shoulderEncoder.setPositionConversionFactor(360);
+        shoulderEncoder.setVelocityConversionFactor(360.0 / 60.0);
+        shoulderEncoder.setZeroOffset(config.shoulderEncoderOffset());
+        shoulderMotorRight.burnFlash();
+    }
+
+    @Override
+    public void updateInputs(ArmIOInputs inputs) {
+        inputs.shoulderAngle = shoulderEncoder.getPosition();
+        inputs.shoulderVelocity = shoulderEncoder.getVelocity();
+        inputs.shoulderRightOutput = shoulderMotorRight.getAppliedOutput();
+        inputs.shoulderLeftOutput = shoulderMotorLeft.getAppliedOutput();
+        inputs.shoulderCurrentAmps = shoulderMotorRight.getOutputCurrent() + shoulderMotorLeft.getOutputCurrent();
+
+        inputs.elbowAngle = elbowEncoder.getPosition();
+        inputs.elbowVelocity = elbowEncoder.getVelocity();
+        inputs.elbowOutput = elbowMotor.getAppliedOutput();
+        inputs.elbowCurrentAmps = elbowMotor.getOutputCurrent();
+    }
+
+    @Override
+    public void setEncoderOffsets(double shoulderOffset, double elbowOffset) {
+        shoulderEncoder.setZeroOffset(shoulderOffset);
+        elbowEncoder.setZeroOffset(elbowOffset);
+    }
+
+    @Override
+    public void setCurrentLimits(int shoulderAmps, int elbowAmps) {
+        setCanTimeout(0);
+        // Free and secondary limits keep their spacing from the stall limit
+        shoulderMotorRight.setSmartCurrentLimit(shoulderAmps,
+                shoulderAmps - STALL_CURRENT_LIMIT_SHOULDER + FREE_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorLeft.setSmartCurrentLimit(shoulderAmps,
+                shoulderAmps - STALL_CURRENT_LIMIT_SHOULDER + FREE_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorRight.setSecondaryCurrentLimit(
+                shoulderAmps - STALL_CURRENT_LIMIT_SHOULDER + SECONDARY_CURRENT_LIMIT_SHOULDER);
+        shoulderMotorLeft.setSecondaryCurrentLimit(
+                shoulderAmps - STALL_CURRENT_LIMIT_SHOULDER + SECONDARY_CURRENT_LIMIT_SHOULDER);
+        elbowMotor.setSmartCurrentLimit(elbowAmps, elbowAmps - STALL_CURRENT_LIMIT_ELBOW + FREE_CURRENT_LIMIT_ELBOW);
+        elbowMotor.setSecondaryCurrentLimit(elbowAmps - STALL_CURRENT_LIMIT_ELBOW + SECONDARY_CURRENT_LIMIT_ELBOW);
+        setCanTimeout(PowerConstants.kSparkMaxCanTimeoutMs);
+    }
+
+    @Override
+    public void setAccelerationScale(double scale) {
+        setCanTimeout(0);
+        shoulderPID.setSmartMotionMaxAccel(ArmConstants.kShoulderMaxAcceleration * scale,
+                ArmConstants.kSmartMotionSlot);
+        elbowPID.setSmartMotionMaxAccel(ArmConstants.kElbowMaxAcceleration * scale, ArmConstants.kSmartMotionSlot);
+        setCanTimeout(PowerConstants.kSparkMaxCanTimeoutMs);
+    }
+
+    /** Zero makes parameter writes return without waiting for the controller to acknowledge. */
+    private void setCanTimeout(int milliseconds) {
+        shoulderMotorRight.setCANTimeout(milliseconds);
+        shoulderMotorLeft.setCANTimeout(milliseconds);
+        elbowMotor.setCANTimeout(milliseconds);
+    }
+
+    @Override
+    public void setShoulderReference(double degrees, boolean profiled, double feedforwardVolts) {
+        setReference(shoulderPID, degrees, profiled, feedforwardVolts);
+    }
+
+    @Override
+    public void setElbowReference(double degrees, boolean profiled, double feedforwardVolts) {
+        setReference(elbowPID, degrees, profiled, feedforwardVolts);
+    }
+
+    private static void setReference(SparkMaxPIDController pid, double degrees, boolean profiled,
+            double feedforwardVolts) {
+        if (profiled) {
+            pid.setReference(degrees, ControlType.kSmartMotion, ArmConstants.kSmartMotionSlot,
+                    feedforwardVolts, ArbFFUnits.kVoltage);
+        } else {
+            pid.setReference(degrees, ControlType.kPosition, ArmConstants.kHoldSlot,
+                    feedforwardVolts, ArbFFUnits.kVoltage);
+        }
+    }
+}
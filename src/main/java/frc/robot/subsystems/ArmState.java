@@ -0,0 +1,117 @@
+package frc.robot.subsystems;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Named arm poses. Angles are in the degrees reported by the shoulder and elbow
+ * absolute encoders, the same units used by {@link Arm#setShoulderSetpoint} and
+ * {@link Arm#setElbowSetpoint}.
+ *
+ * <p>
+ * Every transition between two states is precomputed once as a list of
+ * waypoints, so moving the arm never has to plan at runtime.
+ */
+public enum ArmState {
+    STOW(0, 209),
+    STOW_TRANSIT(20, 220),
+    SUBSTATION(65, 264),
+    MID(79, 265),
+    HIGH(112, 329),
+    HIGH_APPROACH(112, 355),
+    HIGH_RELEASE(112, 350),
+    GROUND_CONE(127, 224),
+    GROUND_CUBE(110, 230);
+
+    public final double shoulderAngle;
+    public final double elbowAngle;
+
+    private static final Map<ArmState, Map<ArmState, ArmState[]>> PATHS = new EnumMap<>(ArmState.class);
+    private static final ArmState[] NO_WAYPOINTS = new ArmState[0];
+
+    static {
+        for (ArmState from : values()) {
+            Map<ArmState, ArmState[]> row = new EnumMap<>(ArmState.class);
+            for (ArmState to : values()) {
+                row.put(to, computePath(from, to));
+            }
+            PATHS.put(from, row);
+        }
+    }
+
+    private ArmState(double shoulderAngle, double elbowAngle) {
+        this.shoulderAngle = shoulderAngle;
+        this.elbowAngle = elbowAngle;
+    }
+
+    /**
+     * Returns the waypoints to visit when moving between two states, ending with
+     * {@code to}.
+     */
+    public static ArmState[] path(ArmState from, ArmState to) {
+        return PATHS.get(from).get(to);
+    }
+
+    /**
+     * Returns the waypoints that can be visited ahead of time when heading for
+     * {@code to}, i.e. the path without its final move. Empty when the move is
+     * already a single step.
+     */
+    public static ArmState[] stagingPath(ArmState from, ArmState to) {
+        ArmState[] full = path(from, to);
+        if (full.length <= 1) {
+            return NO_WAYPOINTS;
+        }
+        ArmState[] staged = new ArmState[full.length - 1];
+        System.arraycopy(full, 0, staged, 0, staged.length);
+        return staged;
+    }
+
+    /**
+     * Finds the named state closest to the given joint angles.
+     */
+    public static ArmState nearest(double shoulderAngle, double elbowAngle) {
+        ArmState best = STOW;
+        double bestDistance = Double.MAX_VALUE;
+        for (ArmState state : values()) {
+            double shoulderError = angleError(state.shoulderAngle, shoulderAngle);
+            double elbowError = angleError(state.elbowAngle, elbowAngle);
+            double distance = shoulderError * shoulderError + elbowError * elbowError;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Smallest signed difference between two angles in degrees.
+     */
+    public static double angleError(double target, double actual) {
+        double error = (target - actual) % 360;
+        if (error > 180) {
+            error -= 360;
+        } else if (error < -180) {
+            error += 360;
+        }
+        return error;
+    }
+
+    private static ArmState[] computePath(ArmState from, ArmState to) {
+        if (from == to) {
+            return new ArmState[] { to };
+        }
+        // Coming down to stow has to pass through the transit pose first so the
+        // elbow folds in before the shoulder drops.
+        if (to == STOW) {
+            return from == STOW_TRANSIT ? new ArmState[] { STOW } : new ArmState[] { STOW_TRANSIT, STOW };
+        }
+        // From low poses, raise to the mid pose (inside the frame perimeter) before
+        // reaching out for the high node.
+        if ((to == HIGH || to == HIGH_APPROACH) && from.shoulderAngle < MID.shoulderAngle) {
+            return new ArmState[] { MID, to };
+        }
+        return new ArmState[] { to };
+    }
+}
@@ -8,9 +8,8 @@ import java.util.List;
 
 import org.littletonrobotics.junction.Logger;
 
-import com.kauailabs.navx.frc.AHRS;
-import edu.wpi.first.wpilibj.SPI;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.filter.LinearFilter;
@@ -19,45 +18,39 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.trajectory.TrajectoryConfig;
 import edu.wpi.first.math.trajectory.TrajectoryGenerator;
-import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.wpilibj.TimedRobot;
 import frc.robot.Constants.AutoConstants;
 import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.ModuleConstants;
+import frc.robot.RobotConfig;
+import frc.utils.LoopProfiler;
+import frc.utils.SwerveKinematicsEngine;
 import frc.utils.SwerveUtils;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.SwerveControllerCommand;
 
 public class DriveSubsystem extends SubsystemBase {
-    // Create MAXSwerveModules
-    private final MAXSwerveModule m_frontLeft = new MAXSwerveModule(
-            DriveConstants.kFrontLeftDrivingCanId,
-            DriveConstants.kFrontLeftTurningCanId,
-            DriveConstants.kFrontLeftChassisAngularOffset);
-
-    private final MAXSwerveModule m_frontRight = new MAXSwerveModule(
-            DriveConstants.kFrontRightDrivingCanId,
-            DriveConstants.kFrontRightTurningCanId,
-            DriveConstants.kFrontRightChassisAngularOffset);
-
-    private final MAXSwerveModule m_rearLeft = new MAXSwerveModule(
-            DriveConstants.kRearLeftDrivingCanId,
-            DriveConstants.kRearLeftTurningCanId,
-            DriveConstants.kBackLeftChassisAngularOffset);
-
-    private final MAXSwerveModule m_rearRight = new MAXSwerveModule(
-            DriveConstants.kRearRightDrivingCanId,
-            DriveConstants.kRearRightTurningCanId,
-            DriveConstants.kBackRightChassisAngularOffset);
+    private final MAXSwerveModule m_frontLeft;
+    private final MAXSwerveModule m_frontRight;
+    private final MAXSwerveModule m_rearLeft;
+    private final MAXSwerveModule m_rearRight;
+    private final MAXSwerveModule[] m_modules;
 
     // The gyro sensor
-    private final AHRS m_gyro = new AHRS(SPI.Port.kMXP);;
+    private final GyroIO m_gyroIO;
+    private final GyroIO.GyroIOInputs m_gyroInputs = new GyroIO.GyroIOInputs();
+    // Heading used for odometry, follows the gyro while it is connected and is
+    // integrated from the module states otherwise (always, in simulation)
+    private Rotation2d m_heading = new Rotation2d();
 
     // Slew rate filter variables for controlling lateral acceleration
     private double m_currentRotation = 0.0;
@@ -66,30 +59,83 @@ public class DriveSubsystem extends SubsystemBase {
 
     private SlewRateLimiter m_magLimiter = new SlewRateLimiter(DriveConstants.kMagnitudeSlewRate);
     private SlewRateLimiter m_rotLimiter = new SlewRateLimiter(DriveConstants.kRotationalSlewRate);
-    private double m_prevTime = WPIUtilJNI.now() * 1e-6;
+    private double m_prevTime = Logger.getInstance().getTimestamp() * 1e-6;
+    private double m_slewRateScale = 1.0;
+    private int m_driveCurrentLimit = ModuleConstants.kDrivingMotorCurrentLimit;
+
+    // Heading hold and snap for teleop, in the gyro's frame. The goal is NaN while
+    // turning freely
+    private final ProfiledPIDController m_headingController = new ProfiledPIDController(
+            DriveConstants.kHeadingP, 0, 0, DriveConstants.kHeadingConstraints);
+    private double m_headingGoal = Double.NaN;
+    private double m_lastTeleopTime = 0.0;
+    // Yaw rate in radians per second, from the gyro or the module states
+    private double m_yawRate = 0.0;
 
     private double lastPitch;
     private double pitchVelocity;
     private LinearFilter pitchVelolcityFilter = LinearFilter.singlePoleIIR(0.1, 0.02);
     private boolean currentBrakeMode = false;
 
+    private final Telemetry.DoubleArrayEntry m_actualStatesEntry = Telemetry.doubleArrayEntry("Chassis/Actual", 8, Tier.DASHBOARD);
+    private final Telemetry.DoubleArrayEntry m_targetStatesEntry = Telemetry.doubleArrayEntry("Chassis/Target", 8, Tier.DASHBOARD);
+    private final Telemetry.DoubleArrayEntry m_poseEntry = Telemetry.doubleArrayEntry("Chassis/Pose", 3, Tier.FULL);
+    private final Telemetry.DoubleEntry m_headingGoalEntry = Telemetry.doubleEntry("Chassis/HeadingGoal", Tier.DASHBOARD);
+    private final LoopProfiler.Section m_profile = LoopProfiler.section("Subsystem/Drive");
+
+    // Kinematics on reused buffers, so the loop doesn't allocate states
+    private final SwerveKinematicsEngine m_kinematics = new SwerveKinematicsEngine(DriveConstants.kModuleTranslations);
+    private final double[] m_targetSpeeds = new double[4];
+    private final double[] m_targetAngles = new double[4];
+    private final double[] m_measuredSpeeds = new double[4];
+    private final double[] m_measuredAngles = new double[4];
+    private final double[] m_chassisSpeeds = new double[3];
+
     // Odometry class for tracking robot pose
-    SwerveDriveOdometry m_odometry = new SwerveDriveOdometry(
-            DriveConstants.kDriveKinematics,
-            getHeading(),
-            new SwerveModulePosition[] {
-                    m_frontLeft.getPosition(),
-                    m_frontRight.getPosition(),
-                    m_rearLeft.getPosition(),
-                    m_rearRight.getPosition()
-            });
+    SwerveDriveOdometry m_odometry;
 
-    /** Creates a new DriveSubsystem. */
-    public DriveSubsystem() {
+    /**
+     * Creates a new DriveSubsystem, with module angular offsets from the robot
+     * config.
+     */
+    public DriveSubsystem(GyroIO gyroIO, ModuleIO frontLeftIO, ModuleIO frontRightIO, ModuleIO rearLeftIO,
+            ModuleIO rearRightIO) {
+        RobotConfig.DriveConfig config = RobotConfig.get().drive();
+        m_frontLeft = new MAXSwerveModule(frontLeftIO, "FrontLeft", config.frontLeftOffset());
+        m_frontRight = new MAXSwerveModule(frontRightIO, "FrontRight", config.frontRightOffset());
+        m_rearLeft = new MAXSwerveModule(rearLeftIO, "RearLeft", config.rearLeftOffset());
+        m_rearRight = new MAXSwerveModule(rearRightIO, "RearRight", config.rearRightOffset());
+        m_modules = new MAXSwerveModule[] { m_frontLeft, m_frontRight, m_rearLeft, m_rearRight };
+
+        m_headingController.enableContinuousInput(-Math.PI, Math.PI);
+
+        m_gyroIO = gyroIO;
+        m_gyroIO.updateInputs(m_gyroInputs);
+        updateHeading();
+
+        m_odometry = new SwerveDriveOdometry(
+                DriveConstants.kDriveKinematics,
+                getHeading(),
+                new SwerveModulePosition[] {
+                        m_frontLeft.getPosition(),
+                        m_frontRight.getPosition(),
+                        m_rearLeft.getPosition(),
+                        m_rearRight.getPosition()
+                });
     }
 
     @Override
     public void periodic() {
+        m_profile.start();
+        // Read every sensor once, everything below works from these inputs
+        m_gyroIO.updateInputs(m_gyroInputs);
+        Logger.getInstance().processInputs("Drive/Gyro", m_gyroInputs);
+        m_frontLeft.updateInputs();
+        m_frontRight.updateInputs();
+        m_rearLeft.updateInputs();
+        m_rearRight.updateInputs();
+        updateHeading();
+
         // Update the odometry in the periodic block
         m_odometry.update(
                 getHeading(),
@@ -103,14 +149,15 @@ public class DriveSubsystem extends SubsystemBase {
         pitchVelocity = pitchVelolcityFilter.calculate(getPitch() - lastPitch);
         lastPitch = getPitch();
 
-        Logger logger = Logger.getInstance();
-        logger.recordOutput("Chassis/Actual", new SwerveModuleState[] {
-                m_frontLeft.getState(),
-                m_frontRight.getState(),
-                m_rearLeft.getState(),
-                m_rearRight.getState()
-        });
-        logger.recordOutput("Chassis/Pose", getPose());
+        readMeasuredStates();
+        for (int i = 0; i < m_modules.length; i++) {
+            logState(m_actualStatesEntry, i, m_measuredSpeeds[i], m_measuredAngles[i]);
+        }
+        Pose2d pose = getPose();
+        m_poseEntry.set(0, pose.getX());
+        m_poseEntry.set(1, pose.getY());
+        m_poseEntry.set(2, pose.getRotation().getRadians());
+        m_profile.stop();
     }
 
     /**
@@ -140,7 +187,7 @@ public class DriveSubsystem extends SubsystemBase {
     }
 
     public double getPitch() {
-        return m_gyro.getPitch();
+        return m_gyroInputs.pitchDegrees;
     }
 
     public double getpitchVelocity() {
@@ -158,6 +205,87 @@ public class DriveSubsystem extends SubsystemBase {
      * @param rateLimit     Whether to enable rate limiting for smoother control.
      */
     public void drive(double xSpeed, double ySpeed, double rot, boolean fieldRelative, boolean rateLimit) {
+        drive(xSpeed, ySpeed, rot, fieldRelative, rateLimit, rateLimit);
+    }
+
+    /**
+     * Method to drive the robot using joystick info, holding the heading while
+     * the rotation input is zero.
+     *
+     * <p>
+     * Once rotation is released and the robot has nearly stopped turning, the
+     * heading is held with a profiled controller. {@link #snapToHeading} sets a
+     * new heading to turn to. Any rotation input takes back control. The hold is
+     * dropped if another command drove the robot in between.
+     *
+     * <p>
+     * The hold runs on the gyro heading and rate, not the pose, which vision
+     * resets every frame and would make the hold chase its noise.
+     *
+     * @param xSpeed        Speed of the robot in the x direction (forward).
+     * @param ySpeed        Speed of the robot in the y direction (sideways).
+     * @param rot           Angular rate of the robot, zero inside the deadband.
+     * @param fieldRelative Whether the provided x and y speeds are relative to the
+     *                      field.
+     * @param rateLimit     Whether to enable rate limiting for smoother control.
+     */
+    public void teleopDrive(double xSpeed, double ySpeed, double rot, boolean fieldRelative, boolean rateLimit) {
+        double now = Logger.getInstance().getTimestamp() * 1e-6;
+        if (now - m_lastTeleopTime > 0.1) {
+            clearHeadingHold();
+        }
+        m_lastTeleopTime = now;
+
+        if (rot != 0.0) {
+            clearHeadingHold();
+            drive(xSpeed, ySpeed, rot, fieldRelative, rateLimit);
+            return;
+        }
+
+        double heading = getHeading().getRadians();
+        if (Double.isNaN(m_headingGoal)) {
+            if (Math.abs(m_yawRate) > DriveConstants.kHeadingCaptureRate) {
+                drive(xSpeed, ySpeed, 0.0, fieldRelative, rateLimit);
+                return;
+            }
+            m_headingGoal = heading;
+            m_headingController.reset(heading, m_yawRate);
+            m_headingGoalEntry.set(m_headingGoal);
+        }
+
+        // Profile velocity as feedforward, damped against the measured rate
+        double feedback = m_headingController.calculate(heading, m_headingGoal);
+        double setpointVelocity = m_headingController.getSetpoint().velocity;
+        double omega = feedback + setpointVelocity + DriveConstants.kHeadingD * (setpointVelocity - m_yawRate);
+        drive(xSpeed, ySpeed, MathUtil.clamp(omega / DriveConstants.kMaxAngularSpeed, -1.0, 1.0), fieldRelative,
+                rateLimit, false);
+    }
+
+    /**
+     * Turns to and holds a field heading while {@link #teleopDrive} has no
+     * rotation input. The field heading is converted to the gyro's frame once,
+     * here, and the hold then runs on the gyro alone.
+     *
+     * @param radians Field heading, counterclockwise from the blue alliance's
+     *                downfield.
+     */
+    public void snapToHeading(double radians) {
+        if (Double.isNaN(m_headingGoal)) {
+            m_headingController.reset(getHeading().getRadians(), m_yawRate);
+        }
+        double fieldToGyro = getHeading().getRadians() - getPose().getRotation().getRadians();
+        m_headingGoal = MathUtil.angleModulus(radians + fieldToGyro);
+        m_headingGoalEntry.set(m_headingGoal);
+    }
+
+    /** Stops holding a heading until teleop rotation is released again. */
+    public void clearHeadingHold() {
+        m_headingGoal = Double.NaN;
+        m_headingGoalEntry.set(m_headingGoal);
+    }
+
+    private void drive(double xSpeed, double ySpeed, double rot, boolean fieldRelative, boolean rateLimit,
+            boolean limitRotation) {
 
         double xSpeedCommanded;
         double ySpeedCommanded;
@@ -176,7 +304,8 @@ public class DriveSubsystem extends SubsystemBase {
                 directionSlewRate = 500.0; // some high number that means the slew rate is effectively instantaneous
             }
 
-            double currentTime = WPIUtilJNI.now() * 1e-6;
+            // Logger time is the cycle time, which replays exactly
+            double currentTime = Logger.getInstance().getTimestamp() * 1e-6;
             double elapsedTime = currentTime - m_prevTime;
             double angleDif = SwerveUtils.AngleDifference(inputTranslationDir, m_currentTranslationDir);
             if (angleDif < 0.45 * Math.PI) {
@@ -201,7 +330,13 @@ public class DriveSubsystem extends SubsystemBase {
 
             xSpeedCommanded = m_currentTranslationMag * Math.cos(m_currentTranslationDir);
             ySpeedCommanded = m_currentTranslationMag * Math.sin(m_currentTranslationDir);
-            m_currentRotation = m_rotLimiter.calculate(rot);
+            if (limitRotation) {
+                m_currentRotation = m_rotLimiter.calculate(rot);
+            } else {
+                // Keep the limiter caught up so the stick takes over smoothly
+                m_currentRotation = rot;
+                m_rotLimiter.reset(rot);
+            }
 
         } else {
             xSpeedCommanded = xSpeed;
@@ -214,18 +349,27 @@ public class DriveSubsystem extends SubsystemBase {
         double ySpeedDelivered = ySpeedCommanded * DriveConstants.kMaxSpeedMetersPerSecond;
         double rotDelivered = m_currentRotation * DriveConstants.kMaxAngularSpeed;
 
-        var swerveModuleStates = DriveConstants.kDriveKinematics.toSwerveModuleStates(
-                fieldRelative
-                        ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeedDelivered, ySpeedDelivered, rotDelivered,
-                                getPose().getRotation())
-                        : new ChassisSpeeds(xSpeedDelivered, ySpeedDelivered, rotDelivered));
-        SwerveDriveKinematics.desaturateWheelSpeeds(
-                swerveModuleStates, DriveConstants.kMaxSpeedMetersPerSecond);
-        m_frontLeft.setDesiredState(swerveModuleStates[0]);
-        m_frontRight.setDesiredState(swerveModuleStates[1]);
-        m_rearLeft.setDesiredState(swerveModuleStates[2]);
-        m_rearRight.setDesiredState(swerveModuleStates[3]);
-        Logger.getInstance().recordOutput("Chassis/Target", swerveModuleStates);
+        if (fieldRelative) {
+            Rotation2d heading = getPose().getRotation();
+            m_kinematics.toModuleStatesFieldRelative(xSpeedDelivered, ySpeedDelivered, rotDelivered,
+                    heading.getCos(), heading.getSin(), m_targetSpeeds, m_targetAngles);
+        } else {
+            m_kinematics.toModuleStates(xSpeedDelivered, ySpeedDelivered, rotDelivered, m_targetSpeeds,
+                    m_targetAngles);
+        }
+        applyTargetStates();
+    }
+
+    /**
+     * Drives at robot-relative chassis speeds with no rate limiting, for path
+     * following controllers.
+     *
+     * @param speeds Chassis speeds in meters and radians per second.
+     */
+    public void setChassisSpeeds(ChassisSpeeds speeds) {
+        m_kinematics.toModuleStates(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond,
+                speeds.omegaRadiansPerSecond, m_targetSpeeds, m_targetAngles);
+        applyTargetStates();
     }
 
     /**
@@ -246,13 +390,32 @@ public class DriveSubsystem extends SubsystemBase {
      * @param desiredStates The desired SwerveModule states.
      */
     public void setModuleStates(SwerveModuleState[] desiredStates) {
-        SwerveDriveKinematics.desaturateWheelSpeeds(
-                desiredStates, DriveConstants.kMaxSpeedMetersPerSecond);
-        m_frontLeft.setDesiredState(desiredStates[0]);
-        m_frontRight.setDesiredState(desiredStates[1]);
-        m_rearLeft.setDesiredState(desiredStates[2]);
-        m_rearRight.setDesiredState(desiredStates[3]);
-        Logger.getInstance().recordOutput("Chassis/Target", desiredStates);
+        for (int i = 0; i < m_modules.length; i++) {
+            m_targetSpeeds[i] = desiredStates[i].speedMetersPerSecond;
+            m_targetAngles[i] = desiredStates[i].angle.getRadians();
+        }
+        applyTargetStates();
+    }
+
+    /** Desaturates the target buffers, sends them to the modules and logs them. */
+    private void applyTargetStates() {
+        SwerveKinematicsEngine.desaturate(m_targetSpeeds, DriveConstants.kMaxSpeedMetersPerSecond);
+        for (int i = 0; i < m_modules.length; i++) {
+            m_modules[i].setDesiredState(m_targetSpeeds[i], m_targetAngles[i]);
+            logState(m_targetStatesEntry, i, m_targetSpeeds[i], m_targetAngles[i]);
+        }
+    }
+
+    private void readMeasuredStates() {
+        for (int i = 0; i < m_modules.length; i++) {
+            m_measuredSpeeds[i] = m_modules[i].getSpeedMetersPerSecond();
+            m_measuredAngles[i] = m_modules[i].getAngleRadians();
+        }
+    }
+
+    private static void logState(Telemetry.DoubleArrayEntry entry, int module, double speed, double angle) {
+        entry.set(module * 2, angle);
+        entry.set(module * 2 + 1, speed);
     }
 
     /** Resets the drive encoders to currently read a position of 0. */
@@ -263,9 +426,111 @@ public class DriveSubsystem extends SubsystemBase {
         m_rearRight.resetEncoders();
     }
 
+    /**
+     * Uses the current turning encoder readings as the chassis angular offsets.
+     * All four wheels have to be pointed straight forward, bevel gears facing
+     * the same way, when this is called.
+     *
+     * @return The new offsets, to be saved to the robot config.
+     */
+    public RobotConfig.DriveConfig calibrateModuleOffsets() {
+        RobotConfig.DriveConfig config = new RobotConfig.DriveConfig(
+                m_frontLeft.getTurningPosition(),
+                m_frontRight.getTurningPosition(),
+                m_rearLeft.getTurningPosition(),
+                m_rearRight.getTurningPosition());
+        m_frontLeft.setChassisAngularOffset(config.frontLeftOffset());
+        m_frontRight.setChassisAngularOffset(config.frontRightOffset());
+        m_rearLeft.setChassisAngularOffset(config.rearLeftOffset());
+        m_rearRight.setChassisAngularOffset(config.rearRightOffset());
+        return config;
+    }
+
+    /**
+     * Runs every module open loop for characterization, wheels straight ahead
+     * when driving.
+     *
+     * @param turn  Whether to turn the modules instead of driving them.
+     * @param volts Motor voltage.
+     */
+    public void runCharacterization(boolean turn, double volts) {
+        for (MAXSwerveModule module : m_modules) {
+            if (turn) {
+                module.runTurnCharacterization(volts);
+            } else {
+                module.runDriveCharacterization(volts);
+            }
+        }
+    }
+
+    /**
+     * Average drive velocity of the modules in meters per second, or turning
+     * velocity in radians per second, read straight from the sensors. Safe to
+     * call off the main loop.
+     */
+    public double readCharacterizationVelocity(boolean turn) {
+        double sum = 0.0;
+        for (MAXSwerveModule module : m_modules) {
+            sum += module.readCharacterizationVelocity(turn);
+        }
+        return sum / m_modules.length;
+    }
+
+    /** Average drive position of the modules in meters, read straight from the sensors. */
+    public double readCharacterizationPosition() {
+        double sum = 0.0;
+        for (MAXSwerveModule module : m_modules) {
+            sum += module.readCharacterizationPosition(false);
+        }
+        return sum / m_modules.length;
+    }
+
+    /** Speeds up the module status frames for sampling during characterization. */
+    public void setCharacterizationFrames(boolean fast) {
+        for (MAXSwerveModule module : m_modules) {
+            module.setFastStatusFrames(fast);
+        }
+    }
+
+    /** Total current of all the module motors, in amps. */
+    public double getCurrentAmps() {
+        double sum = 0.0;
+        for (MAXSwerveModule module : m_modules) {
+            sum += module.getCurrentAmps();
+        }
+        return sum;
+    }
+
+    /**
+     * Changes the driving motors' current limit and scales the joystick slew
+     * rates. Limits are only sent to the modules when they change.
+     *
+     * @param driveCurrentAmps Current limit of each driving motor.
+     * @param slewRateScale    Fraction of the configured slew rates to use.
+     */
+    public void setPowerLimits(int driveCurrentAmps, double slewRateScale) {
+        if (driveCurrentAmps != m_driveCurrentLimit) {
+            for (MAXSwerveModule module : m_modules) {
+                module.setDriveCurrentLimit(driveCurrentAmps);
+            }
+            m_driveCurrentLimit = driveCurrentAmps;
+        }
+        if (slewRateScale != m_slewRateScale) {
+            // Start the new limiters from the current outputs so nothing jumps
+            double magnitudeRate = DriveConstants.kMagnitudeSlewRate * slewRateScale;
+            double rotationalRate = DriveConstants.kRotationalSlewRate * slewRateScale;
+            m_magLimiter = new SlewRateLimiter(magnitudeRate, -magnitudeRate, m_currentTranslationMag);
+            m_rotLimiter = new SlewRateLimiter(rotationalRate, -rotationalRate, m_currentRotation);
+            m_slewRateScale = slewRateScale;
+        }
+    }
+
     /** Zeroes the heading of the robot. */
     public void zeroHeading() {
-        m_gyro.reset();
+        m_gyroIO.reset();
+        m_gyroInputs.yawDegrees = 0.0;
+        m_heading = new Rotation2d();
+        clearHeadingHold();
     }
 
     /**
@@ -274,10 +539,33 @@ public class DriveSubsystem extends SubsystemBase {
      * @return the robot's heading
      */
     private Rotation2d getHeading() {
-        return Rotation2d.fromDegrees(m_gyro.getAngle() * (DriveConstants.kGyroReversed ? -1.0 : 1.0));
+        return m_heading;
+    }
+
+    private void updateHeading() {
+        if (m_gyroInputs.connected) {
+            double sign = DriveConstants.kGyroReversed ? -1.0 : 1.0;
+            m_heading = Rotation2d.fromDegrees(m_gyroInputs.yawDegrees * sign);
+            m_yawRate = Math.toRadians(m_gyroInputs.yawRateDegreesPerSecond * sign);
+        } else {
+            readMeasuredStates();
+            m_kinematics.toChassisSpeeds(m_measuredSpeeds, m_measuredAngles, m_chassisSpeeds);
+            double omega = m_chassisSpeeds[2];
+            m_yawRate = omega;
+            m_heading = m_heading.plus(Rotation2d.fromRadians(omega * TimedRobot.kDefaultPeriod));
+        }
     }
 
     public Command getDriveCommand(Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end) {
+        return getDriveCommand(generateTrajectory(start, interiorWaypoints, end));
+    }
+
+    /**
+     * Generates a trajectory within the autonomous speed limits. On a path it
+     * cannot follow, the generator reports the error and returns a trajectory
+     * that does not move, see {@link #isEmpty(Trajectory)}.
+     */
+    public static Trajectory generateTrajectory(Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end) {
         // Create config for trajectory
         TrajectoryConfig config = new TrajectoryConfig(
                 AutoConstants.kMaxSpeedMetersPerSecond,
@@ -285,22 +573,21 @@ public class DriveSubsystem extends SubsystemBase {
                 // Add kinematics to ensure max speed is actually obeyed
                 .setKinematics(DriveConstants.kDriveKinematics);
 
-        // An example trajectory to follow. All units in meters.
-        Trajectory exampleTrajectory = TrajectoryGenerator.generateTrajectory(
-                // Start at the origin facing the +X direction
-                start,
-                // Pass through these two interior waypoints, making an 's' curve path
-                interiorWaypoints,
-                // End 3 meters straight ahead of where we started, facing forward
-                end,
-                config);
+        return TrajectoryGenerator.generateTrajectory(start, interiorWaypoints, end, config);
+    }
+
+    /** Whether a trajectory is the do-nothing one the generator returns when it fails. */
+    public static boolean isEmpty(Trajectory trajectory) {
+        return trajectory.getStates().size() < 2 || trajectory.getTotalTimeSeconds() <= 0.0;
+    }
 
+    public Command getDriveCommand(Trajectory trajectory) {
         var thetaController = new ProfiledPIDController(
                 AutoConstants.kPThetaController, 0, 0, AutoConstants.kThetaControllerConstraints);
         thetaController.enableContinuousInput(-Math.PI, Math.PI);
 
         SwerveControllerCommand swerveControllerCommand = new SwerveControllerCommand(
-                exampleTrajectory,
+                trajectory,
                 this::getPose, // Functional interface to feed supplier
                 DriveConstants.kDriveKinematics,
 
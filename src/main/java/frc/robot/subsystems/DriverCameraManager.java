@@ -0,0 +1,208 @@
+package frc.robot.subsystems;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import edu.wpi.first.cameraserver.CameraServer;
+import edu.wpi.first.cscore.MjpegServer;
+import edu.wpi.first.cscore.UsbCamera;
+import edu.wpi.first.cscore.VideoSource.ConnectionStrategy;
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.DriverCameraConstants;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
+
+/**
+ * Streams the driver cameras on one MJPEG stream, sized to fit the field link.
+ *
+ * <p>
+ * The cameras always capture at one fixed mode and stay open, so switching
+ * between them is instant. Resolution, frame rate and JPEG quality are set on
+ * the stream instead, from a ladder of levels in
+ * {@link DriverCameraConstants#kStreamLevels}. The match phase picks the best
+ * level allowed; below that the level steps down as soon as link usage stays
+ * over the target and back up only after it has stayed well under it for a
+ * while.
+ *
+ * <p>
+ * Link usage is the traffic through the radio interface, read from
+ * {@code /proc/net/dev} on a notifier thread, less the on-robot traffic that
+ * shares the interface, mostly the vision coprocessor talking to NT. That
+ * never crosses the radio, and the roboRIO cannot tell it apart per peer, so
+ * it is measured while no driver station is connected, when it is all the
+ * interface carries, and assumed to stay the same once one connects. Until it
+ * has been measured nothing is subtracted, which errs towards a lower level.
+ * Off the robot there is no link to measure and the level only follows the
+ * match phase.
+ */
+public class DriverCameraManager extends SubsystemBase {
+    private final UsbCamera[] cameras;
+    private final MjpegServer server;
+    private final Notifier linkSampler = new Notifier(this::sampleLink);
+    private final Path netDev = Path.of("/proc/net/dev");
+
+    private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/DriverCamera");
+    private final Telemetry.DoubleEntry cameraEntry = Telemetry.doubleEntry("DriverCamera/Camera", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry levelEntry = Telemetry.doubleEntry("DriverCamera/Level", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry linkEntry = Telemetry.doubleEntry("DriverCamera/LinkMbps", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry localEntry = Telemetry.doubleEntry("DriverCamera/LocalMbps", Tier.LOG_ONLY);
+
+    // Written by the sampler thread. Link usage is NaN until there are two
+    // samples and while no driver station is connected
+    private volatile double linkMbps = Double.NaN;
+    private volatile double localMbps = 0.0;
+    // Sampler thread only
+    private final LinearFilter localFilter = LinearFilter.singlePoleIIR(
+            DriverCameraConstants.kLocalTrafficTimeConstantSeconds, DriverCameraConstants.kLinkSamplePeriodSeconds);
+    private long lastBytes = -1;
+    private double lastSampleTime = 0.0;
+
+    private int selected = 0;
+    private int adaptedLevel = 0;
+    private int appliedLevel = -1;
+    private double overSince = Double.NaN;
+    private double underSince = Double.NaN;
+
+    public DriverCameraManager() {
+        int[] devices = DriverCameraConstants.kCameraDevices;
+        cameras = new UsbCamera[devices.length];
+        for (int i = 0; i < devices.length; i++) {
+            cameras[i] = new UsbCamera("Driver " + i, devices[i]);
+            cameras[i].setResolution(DriverCameraConstants.kCaptureWidth, DriverCameraConstants.kCaptureHeight);
+            cameras[i].setFPS(DriverCameraConstants.kCaptureFps);
+            cameras[i].setConnectionStrategy(ConnectionStrategy.kKeepOpen);
+        }
+        server = CameraServer.addSwitchedCamera("Driver");
+        server.setSource(cameras[selected]);
+
+        if (RobotBase.isReal()) {
+            linkSampler.setName("Link Sampler");
+            linkSampler.startPeriodic(DriverCameraConstants.kLinkSamplePeriodSeconds);
+        }
+    }
+
+    /** Puts a camera on the stream. */
+    public void selectCamera(int index) {
+        if (index < 0 || index >= cameras.length || index == selected) {
+            return;
+        }
+        selected = index;
+        server.setSource(cameras[selected]);
+        cameraEntry.set(selected);
+    }
+
+    /** Puts the next camera on the stream. */
+    public void nextCamera() {
+        selectCamera((selected + 1) % cameras.length);
+    }
+
+    @Override
+    public void periodic() {
+        profile.start();
+        double now = Timer.getFPGATimestamp();
+        double usage = linkMbps;
+        double target = DriverCameraConstants.kLinkCapMbps * DriverCameraConstants.kLinkTargetFraction;
+        int lowest = DriverCameraConstants.kStreamLevels.length - 1;
+
+        if (!Double.isNaN(usage)) {
+            if (usage > target) {
+                if (Double.isNaN(overSince)) {
+                    overSince = now;
+                } else if (now - overSince > DriverCameraConstants.kStepDownSeconds && adaptedLevel < lowest) {
+                    // Wait again before the next step, the last one takes a moment to show
+                    adaptedLevel++;
+                    overSince = now;
+                }
+            } else {
+                overSince = Double.NaN;
+            }
+
+            if (usage < target * DriverCameraConstants.kStepUpFraction) {
+                if (Double.isNaN(underSince)) {
+                    underSince = now;
+                } else if (now - underSince > DriverCameraConstants.kStepUpSeconds && adaptedLevel > 0) {
+                    adaptedLevel--;
+                    underSince = now;
+                }
+            } else {
+                underSince = Double.NaN;
+            }
+        }
+
+        int level = Math.max(adaptedLevel, topLevel());
+        if (level != appliedLevel) {
+            appliedLevel = level;
+            int[] settings = DriverCameraConstants.kStreamLevels[level];
+            server.setResolution(settings[0], settings[1]);
+            server.setFPS(settings[2]);
+            server.setCompression(settings[3]);
+            levelEntry.set(level);
+        }
+        if (!Double.isNaN(usage)) {
+            linkEntry.set(usage);
+        }
+        localEntry.set(localMbps);
+        profile.stop();
+    }
+
+    /** Best level allowed in the current match phase. */
+    private static int topLevel() {
+        if (DriverStation.isAutonomous() && DriverStation.isEnabled()) {
+            return DriverCameraConstants.kAutoTopLevel;
+        } else if (DriverStation.isDisabled()) {
+            return DriverCameraConstants.kDisabledTopLevel;
+        }
+        return DriverCameraConstants.kTeleopTopLevel;
+    }
+
+    // Sampler thread
+
+    private void sampleLink() {
+        long bytes = readInterfaceBytes();
+        double now = Timer.getFPGATimestamp();
+        if (bytes >= 0 && lastBytes >= 0 && now > lastSampleTime) {
+            double totalMbps = (bytes - lastBytes) * 8.0 / 1e6 / (now - lastSampleTime);
+            if (DriverStation.isDSAttached()) {
+                linkMbps = Math.max(0.0, totalMbps - localMbps);
+            } else {
+                // Nothing crosses the radio without a driver station
+                localMbps = localFilter.calculate(totalMbps);
+                linkMbps = Double.NaN;
+            }
+        }
+        lastBytes = bytes;
+        lastSampleTime = now;
+    }
+
+    /** Received plus sent bytes on the radio interface, or -1 if it cannot be read. */
+    private long readInterfaceBytes() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(netDev);
+        } catch (IOException e) {
+            return -1;
+        }
+        String prefix = DriverCameraConstants.kLinkInterface + ":";
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(prefix)) {
+                // rx bytes is the first field, tx bytes the ninth
+                String[] fields = trimmed.substring(prefix.length()).trim().split("\\s+");
+                try {
+                    return Long.parseLong(fields[0]) + Long.parseLong(fields[8]);
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,41 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Hardware interface for the gyro. Angles are in degrees as the gyro reports
+ * them, {@code kGyroReversed} is applied by the drive.
+ */
+public interface GyroIO {
+    public static class GyroIOInputs implements LoggableInputs {
+        public boolean connected = false;
+        public double yawDegrees = 0.0;
+        public double yawRateDegreesPerSecond = 0.0;
+        public double pitchDegrees = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("Connected", connected);
+            table.put("YawDegrees", yawDegrees);
+            table.put("YawRateDegreesPerSecond", yawRateDegreesPerSecond);
+            table.put("PitchDegrees", pitchDegrees);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            connected = table.getBoolean("Connected", connected);
+            yawDegrees = table.getDouble("YawDegrees", yawDegrees);
+            yawRateDegreesPerSecond = table.getDouble("YawRateDegreesPerSecond", yawRateDegreesPerSecond);
+            pitchDegrees = table.getDouble("PitchDegrees", pitchDegrees);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(GyroIOInputs inputs) {
+    }
+
+    /** Zeroes the yaw. */
+    public default void reset() {
+    }
+}
@@ -0,0 +1,23 @@
+package frc.robot.subsystems;
+
+import com.kauailabs.navx.frc.AHRS;
+
+import edu.wpi.first.wpilibj.SPI;
+
+/** NavX on the MXP port. */
+public class GyroIONavX implements GyroIO {
+    private final AHRS gyro = new AHRS(SPI.Port.kMXP);
+
+    @Override
+    public void updateInputs(GyroIOInputs inputs) {
+        inputs.connected = gyro.isConnected();
+        inputs.yawDegrees = gyro.getAngle();
+        inputs.yawRateDegreesPerSecond = gyro.getRate();
+        inputs.pitchDegrees = gyro.getPitch();
+    }
+
+    @Override
+    public void reset() {
+        gyro.reset();
+    }
+}
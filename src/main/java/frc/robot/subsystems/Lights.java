@@ -1,33 +1,82 @@
 package frc.robot.subsystems;
 
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.DigitalOutput;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.AllianceService;
+import frc.robot.Constants.LightsConstants;
+import frc.utils.LedRenderer;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 
-
-/*
- * Both low = Fire
- * One low = Cone / Cube
- * Two high = Rainbow
+/**
+ * Signals to the drivers and the human player on an addressable LED strip,
+ * and the basic state to the separate light controller over two DIO pins.
+ *
+ * <p>
+ * DIO pins: both low = Fire, one low = Cone / Cube, two high = Rainbow.
+ *
+ * <p>
+ * The strip shows, highest priority first: a loop-overrun alarm, the balance
+ * status while on the charge station, vision lock, then the requested game
+ * piece or the alliance color. Frames are drawn by a {@link LedRenderer} off
+ * the robot thread; {@link #periodic()} only picks the animation and sends the
+ * newest frame.
  */
 public class Lights extends SubsystemBase {
-    DigitalOutput conePin;
-    DigitalOutput cubePin;
+    private enum Request {
+        TEAM, CONE, CUBE
+    }
+
+    private final DigitalOutput conePin;
+    private final DigitalOutput cubePin;
+    private final LedRenderer renderer;
+    private final BooleanSupplier visionLock;
+    private final DoubleSupplier pitchDegrees;
+    private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/Lights");
+    private final Telemetry.StringEntry animationEntry = Telemetry.stringEntry("Lights/Animation", Tier.DASHBOARD);
 
- 
-    public Lights() {
-        conePin = new DigitalOutput(11);
-        cubePin = new DigitalOutput(12);
+    private Request request = Request.TEAM;
+    private LedRenderer.Animation current;
+    private double lastPeriodic = Timer.getFPGATimestamp();
+    private double alarmUntil = 0.0;
+    private double balanceUntil = 0.0;
+
+    // Read by the render thread
+    private volatile boolean red = false;
+    private volatile double pitch = 0.0;
+
+    private final LedRenderer.Animation teamAnimation = this::renderTeam;
+    private final LedRenderer.Animation coneAnimation = (buffer, time) -> blink(buffer, time, 255, 160, 0);
+    private final LedRenderer.Animation cubeAnimation = (buffer, time) -> blink(buffer, time, 140, 0, 255);
+    private final LedRenderer.Animation visionAnimation = this::renderVisionLock;
+    private final LedRenderer.Animation balanceAnimation = this::renderBalance;
+    private final LedRenderer.Animation alarmAnimation = (buffer, time) -> blink(buffer, time * 2, 255, 0, 0);
+
+    /**
+     * @param visionLock   Whether vision currently sees a target.
+     * @param pitchDegrees Robot pitch, for the balance status.
+     */
+    public Lights(BooleanSupplier visionLock, DoubleSupplier pitchDegrees) {
+        this.visionLock = visionLock;
+        this.pitchDegrees = pitchDegrees;
+        conePin = new DigitalOutput(LightsConstants.kConePin);
+        cubePin = new DigitalOutput(LightsConstants.kCubePin);
         conePin.set(false);
         cubePin.set(false);
-        System.out.println("Setup lights");
-        DriverStation.getAlliance();
-        
+        renderer = new LedRenderer(LightsConstants.kLedPwmPort, LightsConstants.kLedLength,
+                LightsConstants.kRenderPeriodSeconds);
     }
 
     public Alliance getTeamColor() {
-        switch (DriverStation.getAlliance()) {
+        switch (AllianceService.get()) {
             case Blue:
                 return Alliance.Blue;
             case Red:
@@ -38,7 +87,7 @@ public class Lights extends SubsystemBase {
     }
 
     public void showTeam() {
-        System.out.println("Show team");
+        request = Request.TEAM;
         switch(getTeamColor()) {
             case Blue:
                 showBlue();
@@ -62,24 +111,113 @@ public class Lights extends SubsystemBase {
     }
 
     public void showCone() {
-        System.out.println("Show cone");
+        request = Request.CONE;
         conePin.set(true);
         cubePin.set(false);
     }
 
     public void showCube() {
-        System.out.println("Show cube");
+        request = Request.CUBE;
         conePin.set(false);
         cubePin.set(true);
     }
-    
+
     @Override
     public void periodic() {
+        profile.start();
+        double now = Timer.getFPGATimestamp();
+        if (DriverStation.isEnabled() && now - lastPeriodic > LightsConstants.kLoopAlarmSeconds) {
+            alarmUntil = now + LightsConstants.kAlarmHoldSeconds;
+        }
+        lastPeriodic = now;
+
+        pitch = pitchDegrees.getAsDouble();
+        if (Math.abs(pitch) > LightsConstants.kBalanceShowDegrees) {
+            balanceUntil = now + LightsConstants.kBalanceHoldSeconds;
+        }
+        red = getTeamColor() == Alliance.Red;
 
+        LedRenderer.Animation animation;
+        if (now < alarmUntil) {
+            animation = alarmAnimation;
+        } else if (now < balanceUntil) {
+            animation = balanceAnimation;
+        } else if (visionLock.getAsBoolean()) {
+            animation = visionAnimation;
+        } else if (request == Request.CONE) {
+            animation = coneAnimation;
+        } else if (request == Request.CUBE) {
+            animation = cubeAnimation;
+        } else {
+            animation = teamAnimation;
+        }
+        if (animation != current) {
+            current = animation;
+            renderer.setAnimation(animation);
+            animationEntry.set(describe(animation));
+        }
+        renderer.present();
+        profile.stop();
     }
 
-    @Override
-    public void simulationPeriodic() {
+    private String describe(LedRenderer.Animation animation) {
+        if (animation == alarmAnimation) {
+            return "LoopAlarm";
+        } else if (animation == balanceAnimation) {
+            return "Balance";
+        } else if (animation == visionAnimation) {
+            return "VisionLock";
+        }
+        return request.name();
+    }
+
+    // Everything below runs on the render thread
+
+    /** Alliance color, breathing. */
+    private void renderTeam(AddressableLEDBuffer buffer, double time) {
+        double level = 0.55 + 0.45 * Math.sin(time * Math.PI);
+        int value = (int) (255 * level);
+        fill(buffer, red ? value : 0, 0, red ? 0 : value);
+    }
 
+    /** Green dot chasing along the strip. */
+    private void renderVisionLock(AddressableLEDBuffer buffer, double time) {
+        int length = buffer.getLength();
+        int head = (int) (time * 40) % length;
+        for (int i = 0; i < length; i++) {
+            int distance = Math.floorMod(head - i, length);
+            int value = distance < 6 ? 255 - distance * 40 : 20;
+            buffer.setRGB(i, 0, value, 0);
+        }
+    }
+
+    /** Bar from the middle out, as long as the tilt, green once level. */
+    private void renderBalance(AddressableLEDBuffer buffer, double time) {
+        int length = buffer.getLength();
+        double tilt = Math.abs(pitch);
+        if (tilt < LightsConstants.kBalanceLevelDegrees) {
+            fill(buffer, 0, 255, 0);
+            return;
+        }
+        int half = length / 2;
+        int lit = (int) Math.min(half, half * tilt / LightsConstants.kBalanceFullScaleDegrees);
+        for (int i = 0; i < length; i++) {
+            boolean on = Math.abs(i - half) <= lit;
+            buffer.setRGB(i, on ? 255 : 0, on ? 120 : 0, 0);
+        }
+    }
+
+    private static void blink(AddressableLEDBuffer buffer, double time, int r, int g, int b) {
+        if ((long) (time * 4) % 2 == 0) {
+            fill(buffer, r, g, b);
+        } else {
+            fill(buffer, 0, 0, 0);
+        }
+    }
+
+    private static void fill(AddressableLEDBuffer buffer, int r, int g, int b) {
+        for (int i = 0; i < buffer.getLength(); i++) {
+            buffer.setRGB(i, r, g, b);
+        }
     }
 }
@@ -4,113 +4,47 @@
 
 package frc.robot.subsystems;
 
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.SparkMaxAbsoluteEncoder.Type;
-import com.revrobotics.SparkMaxPIDController;
-import com.revrobotics.AbsoluteEncoder;
-import com.revrobotics.RelativeEncoder;
-
 import frc.robot.Constants.ModuleConstants;
 
 public class MAXSwerveModule {
-    private final CANSparkMax m_drivingSparkMax;
-    private final CANSparkMax m_turningSparkMax;
-
-    private final RelativeEncoder m_drivingEncoder;
-    private final AbsoluteEncoder m_turningEncoder;
-
-    private final SparkMaxPIDController m_drivingPIDController;
-    private final SparkMaxPIDController m_turningPIDController;
+    private final ModuleIO m_io;
+    private final ModuleIO.ModuleIOInputs m_inputs = new ModuleIO.ModuleIOInputs();
+    private final String m_logKey;
 
     private double m_chassisAngularOffset = 0;
-    private SwerveModuleState m_desiredState = new SwerveModuleState(0.0, new Rotation2d());
+
+    private final SimpleMotorFeedforward m_drivingFeedforward = new SimpleMotorFeedforward(
+            ModuleConstants.kDrivingS, ModuleConstants.kDrivingV, ModuleConstants.kDrivingA);
+    // Last commanded wheel speed and angle, for the desired acceleration. NaN
+    // when there is none.
+    private double m_lastSpeed = Double.NaN;
+    private double m_lastAngle = 0.0;
+    private double m_lastStateTime = 0.0;
 
     /**
-     * Constructs a MAXSwerveModule and configures the driving and turning motor,
-     * encoder, and PID controller. This configuration is specific to the REV
-     * MAXSwerve Module built with NEOs, SPARKS MAX, and a Through Bore
-     * Encoder.
+     * Constructs a MAXSwerveModule on top of the given hardware. The name is
+     * used for the logged inputs.
      */
-    public MAXSwerveModule(int drivingCANId, int turningCANId, double chassisAngularOffset) {
-        m_drivingSparkMax = new CANSparkMax(drivingCANId, MotorType.kBrushless);
-        m_turningSparkMax = new CANSparkMax(turningCANId, MotorType.kBrushless);
-
-        // Factory reset, so we get the SPARKS MAX to a known state before configuring
-        // them. This is useful in case a SPARK MAX is swapped out.
-        m_drivingSparkMax.restoreFactoryDefaults();
-        m_turningSparkMax.restoreFactoryDefaults();
-
-        // Setup encoders and PID controllers for the driving and turning SPARKS MAX.
-        m_drivingEncoder = m_drivingSparkMax.getEncoder();
-        m_turningEncoder = m_turningSparkMax.getAbsoluteEncoder(Type.kDutyCycle);
-        m_drivingPIDController = m_drivingSparkMax.getPIDController();
-        m_turningPIDController = m_turningSparkMax.getPIDController();
-        m_drivingPIDController.setFeedbackDevice(m_drivingEncoder);
-        m_turningPIDController.setFeedbackDevice(m_turningEncoder);
-
-        // Apply position and velocity conversion factors for the driving encoder. The
-        // native units for position and velocity are rotations and RPM, respectively,
-        // but we want meters and meters per second to use with WPILib's swerve APIs.
-        m_drivingEncoder.setPositionConversionFactor(ModuleConstants.kDrivingEncoderPositionFactor);
-        m_drivingEncoder.setVelocityConversionFactor(ModuleConstants.kDrivingEncoderVelocityFactor);
-
-        // Apply position and velocity conversion factors for the turning encoder. We
-        // want these in radians and radians per second to use with WPILib's swerve
-        // APIs.
-        m_turningEncoder.setPositionConversionFactor(ModuleConstants.kTurningEncoderPositionFactor);
-        m_turningEncoder.setVelocityConversionFactor(ModuleConstants.kTurningEncoderVelocityFactor);
-
-        // Invert the turning encoder, since the output shaft rotates in the opposite
-        // direction of
-        // the steering motor in the MAXSwerve Module.
-        m_turningEncoder.setInverted(ModuleConstants.kTurningEncoderInverted);
-
-        // Enable PID wrap around for the turning motor. This will allow the PID
-        // controller to go through 0 to get to the setpoint i.e. going from 350 degrees
-        // to 10 degrees will go through 0 rather than the other direction which is a
-        // longer route.
-        m_turningPIDController.setPositionPIDWrappingEnabled(true);
-        m_turningPIDController.setPositionPIDWrappingMinInput(ModuleConstants.kTurningEncoderPositionPIDMinInput);
-        m_turningPIDController.setPositionPIDWrappingMaxInput(ModuleConstants.kTurningEncoderPositionPIDMaxInput);
-
-        // Set the PID gains for the driving motor. Note these are example gains, and
-        // you
-        // may need to tune them for your own robot!
-        m_drivingPIDController.setP(ModuleConstants.kDrivingP);
-        m_drivingPIDController.setI(ModuleConstants.kDrivingI);
-        m_drivingPIDController.setD(ModuleConstants.kDrivingD);
-        m_drivingPIDController.setFF(ModuleConstants.kDrivingFF);
-        m_drivingPIDController.setOutputRange(ModuleConstants.kDrivingMinOutput,
-                ModuleConstants.kDrivingMaxOutput);
-
-        // Set the PID gains for the turning motor. Note these are example gains, and
-        // you
-        // may need to tune them for your own robot!
-        m_turningPIDController.setP(ModuleConstants.kTurningP);
-        m_turningPIDController.setI(ModuleConstants.kTurningI);
-        m_turningPIDController.setD(ModuleConstants.kTurningD);
-        m_turningPIDController.setFF(ModuleConstants.kTurningFF);
-        m_turningPIDController.setOutputRange(ModuleConstants.kTurningMinOutput,
-                ModuleConstants.kTurningMaxOutput);
-
-        m_drivingSparkMax.setIdleMode(ModuleConstants.kDrivingMotorIdleMode);
-        m_turningSparkMax.setIdleMode(ModuleConstants.kTurningMotorIdleMode);
-        m_drivingSparkMax.setSmartCurrentLimit(ModuleConstants.kDrivingMotorCurrentLimit);
-        m_turningSparkMax.setSmartCurrentLimit(ModuleConstants.kTurningMotorCurrentLimit);
-
-        // Save the SPARK MAX configurations. If a SPARK MAX browns out during
-        // operation, it will maintain the above configurations.
-        m_drivingSparkMax.burnFlash();
-        m_turningSparkMax.burnFlash();
-
+    public MAXSwerveModule(ModuleIO io, String name, double chassisAngularOffset) {
+        m_io = io;
+        m_logKey = "Drive/Module" + name;
         m_chassisAngularOffset = chassisAngularOffset;
-        m_desiredState.angle = new Rotation2d(m_turningEncoder.getPosition());
-        m_drivingEncoder.setPosition(0);
+
+        // Read the encoders once so odometry can be seeded before the first periodic
+        m_io.updateInputs(m_inputs);
+    }
+
+    /** Reads and logs the module's inputs. Called by the drive once per loop. */
+    public void updateInputs() {
+        m_io.updateInputs(m_inputs);
+        Logger.getInstance().processInputs(m_logKey, m_inputs);
     }
 
     /**
@@ -121,8 +55,18 @@ public class MAXSwerveModule {
     public SwerveModuleState getState() {
         // Apply chassis angular offset to the encoder position to get the position
         // relative to the chassis.
-        return new SwerveModuleState(m_drivingEncoder.getVelocity(),
-                new Rotation2d(m_turningEncoder.getPosition() - m_chassisAngularOffset));
+        return new SwerveModuleState(m_inputs.driveVelocityMetersPerSecond,
+                new Rotation2d(m_inputs.turnPositionRadians - m_chassisAngularOffset));
+    }
+
+    /** Wheel speed in meters per second, without allocating a state. */
+    public double getSpeedMetersPerSecond() {
+        return m_inputs.driveVelocityMetersPerSecond;
+    }
+
+    /** Wheel angle relative to the chassis in radians, without allocating a state. */
+    public double getAngleRadians() {
+        return MathUtil.angleModulus(m_inputs.turnPositionRadians - m_chassisAngularOffset);
     }
 
     /**
@@ -134,8 +78,8 @@ public class MAXSwerveModule {
         // Apply chassis angular offset to the encoder position to get the position
         // relative to the chassis.
         return new SwerveModulePosition(
-                m_drivingEncoder.getPosition(),
-                new Rotation2d(m_turningEncoder.getPosition() - m_chassisAngularOffset));
+                m_inputs.drivePositionMeters,
+                new Rotation2d(m_inputs.turnPositionRadians - m_chassisAngularOffset));
     }
 
     /**
@@ -144,26 +88,126 @@ public class MAXSwerveModule {
      * @param desiredState Desired state with speed and angle.
      */
     public void setDesiredState(SwerveModuleState desiredState) {
+        setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getRadians());
+    }
+
+    /**
+     * Sets the desired state for the module from a speed and an angle relative
+     * to the chassis, without allocating.
+     *
+     * @param speedMetersPerSecond Desired wheel speed.
+     * @param angleRadians         Desired wheel angle relative to the chassis.
+     */
+    public void setDesiredState(double speedMetersPerSecond, double angleRadians) {
         // Apply chassis angular offset to the desired state.
-        SwerveModuleState correctedDesiredState = new SwerveModuleState();
-        correctedDesiredState.speedMetersPerSecond = desiredState.speedMetersPerSecond;
-        correctedDesiredState.angle = desiredState.angle.plus(Rotation2d.fromRadians(m_chassisAngularOffset));
+        double angle = MathUtil.angleModulus(angleRadians + m_chassisAngularOffset);
+        double speed = speedMetersPerSecond;
 
-        // Optimize the reference state to avoid spinning further than 90 degrees.
-        SwerveModuleState optimizedDesiredState = SwerveModuleState.optimize(correctedDesiredState,
-                new Rotation2d(m_turningEncoder.getPosition()));
+        // Optimize the reference state to avoid spinning further than 90 degrees,
+        // as SwerveModuleState.optimize() does.
+        if (Math.abs(MathUtil.angleModulus(angle - m_inputs.turnPositionRadians)) > Math.PI / 2) {
+            speed = -speed;
+            angle = MathUtil.angleModulus(angle + Math.PI);
+        }
 
         // Command driving and turning SPARKS MAX towards their respective setpoints.
-        m_drivingPIDController.setReference(optimizedDesiredState.speedMetersPerSecond,
-                CANSparkMax.ControlType.kVelocity);
-        m_turningPIDController.setReference(optimizedDesiredState.angle.getRadians(),
-                CANSparkMax.ControlType.kPosition);
+        m_io.setDriveVelocity(speed, m_drivingFeedforward.calculate(speed, getDesiredAcceleration(speed, angle)));
+        m_io.setTurnPosition(angle);
+    }
+
+    /**
+     * Acceleration between the previous setpoint and this one along the wheel's
+     * new direction, so a flip from optimizing the state is not a step change.
+     */
+    private double getDesiredAcceleration(double speed, double angle) {
+        double now = Logger.getInstance().getTimestamp() / 1e6;
+        double acceleration = 0.0;
+        if (!Double.isNaN(m_lastSpeed)) {
+            double elapsedTime = now - m_lastStateTime;
+            // Skip the first state after a gap, e.g. coming back from disabled
+            if (elapsedTime > 1e-3 && elapsedTime < 0.1) {
+                double lastSpeed = m_lastSpeed * Math.cos(angle - m_lastAngle);
+                acceleration = (speed - lastSpeed) / elapsedTime;
+            }
+        }
+        m_lastSpeed = speed;
+        m_lastAngle = angle;
+        m_lastStateTime = now;
+        return acceleration;
+    }
+
+    /**
+     * Holds the wheel pointed straight forward and drives it open loop, for
+     * characterization.
+     *
+     * @param volts Drive motor voltage.
+     */
+    public void runDriveCharacterization(double volts) {
+        m_lastSpeed = Double.NaN;
+        m_io.setTurnPosition(m_chassisAngularOffset);
+        m_io.setDriveVoltage(volts);
+    }
+
+    /**
+     * Stops the wheel and turns the module open loop, for characterization.
+     *
+     * @param volts Turning motor voltage.
+     */
+    public void runTurnCharacterization(double volts) {
+        m_lastSpeed = Double.NaN;
+        m_io.setDriveVoltage(0.0);
+        m_io.setTurnVoltage(volts);
+    }
+
+    /**
+     * Reads the drive position in meters, or the turning position in radians,
+     * straight from the sensor. Safe to call off the main loop.
+     */
+    public double readCharacterizationPosition(boolean turn) {
+        return m_io.readCharacterizationPosition(turn);
+    }
+
+    /** Velocity counterpart of {@link #readCharacterizationPosition}. */
+    public double readCharacterizationVelocity(boolean turn) {
+        return m_io.readCharacterizationVelocity(turn);
+    }
+
+    /** Speeds up the sensor status frames while characterizing. */
+    public void setFastStatusFrames(boolean fast) {
+        m_io.setFastStatusFrames(fast);
+    }
+
+    /**
+     * Returns the raw turning encoder position, without the chassis angular
+     * offset applied.
+     *
+     * @return The turning encoder position in radians.
+     */
+    public double getTurningPosition() {
+        return m_inputs.turnPositionRadians;
+    }
+
+    /**
+     * Sets the angular offset of the module relative to the chassis.
+     *
+     * @param chassisAngularOffset The offset in radians.
+     */
+    public void setChassisAngularOffset(double chassisAngularOffset) {
+        m_chassisAngularOffset = chassisAngularOffset;
+    }
+
+    /** Total current of the driving and turning motors, in amps. */
+    public double getCurrentAmps() {
+        return m_inputs.driveCurrentAmps + m_inputs.turnCurrentAmps;
+    }
 
-        m_desiredState = desiredState;
+    /** Changes the driving motor's current limit, in amps. */
+    public void setDriveCurrentLimit(int amps) {
+        m_io.setDriveCurrentLimit(amps);
     }
 
     /** Zeroes all the SwerveModule encoders. */
     public void resetEncoders() {
-        m_drivingEncoder.setPosition(0);
+        m_io.resetDriveEncoder();
     }
 }
@@ -0,0 +1,99 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Hardware interface for one swerve module. Distances are in meters, the
+ * turning angle is the raw absolute encoder reading in radians, without the
+ * chassis angular offset.
+ */
+public interface ModuleIO {
+    public static class ModuleIOInputs implements LoggableInputs {
+        public double drivePositionMeters = 0.0;
+        public double driveVelocityMetersPerSecond = 0.0;
+        public double driveAppliedOutput = 0.0;
+        public double driveCurrentAmps = 0.0;
+
+        public double turnPositionRadians = 0.0;
+        public double turnVelocityRadiansPerSecond = 0.0;
+        public double turnAppliedOutput = 0.0;
+        public double turnCurrentAmps = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("DrivePositionMeters", drivePositionMeters);
+            table.put("DriveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            table.put("DriveAppliedOutput", driveAppliedOutput);
+            table.put("DriveCurrentAmps", driveCurrentAmps);
+            table.put("TurnPositionRadians", turnPositionRadians);
+            table.put("TurnVelocityRadiansPerSecond", turnVelocityRadiansPerSecond);
+            table.put("TurnAppliedOutput", turnAppliedOutput);
+            table.put("TurnCurrentAmps", turnCurrentAmps);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            drivePositionMeters = table.getDouble("DrivePositionMeters", drivePositionMeters);
+            driveVelocityMetersPerSecond = table.getDouble("DriveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            driveAppliedOutput = table.getDouble("DriveAppliedOutput", driveAppliedOutput);
+            driveCurrentAmps = table.getDouble("DriveCurrentAmps", driveCurrentAmps);
+            turnPositionRadians = table.getDouble("TurnPositionRadians", turnPositionRadians);
+            turnVelocityRadiansPerSecond = table.getDouble("TurnVelocityRadiansPerSecond", turnVelocityRadiansPerSecond);
+            turnAppliedOutput = table.getDouble("TurnAppliedOutput", turnAppliedOutput);
+            turnCurrentAmps = table.getDouble("TurnCurrentAmps", turnCurrentAmps);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(ModuleIOInputs inputs) {
+    }
+
+    /**
+     * Runs the drive motor's velocity loop at the given wheel speed, with the
+     * feedforward voltage added on top of the loop's output.
+     */
+    public default void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {
+    }
+
+    /** Runs the turning motor's position loop to the given raw encoder angle. */
+    public default void setTurnPosition(double radians) {
+    }
+
+    /** Runs the drive motor open loop, for characterization. */
+    public default void setDriveVoltage(double volts) {
+    }
+
+    /** Runs the turning motor open loop, for characterization. */
+    public default void setTurnVoltage(double volts) {
+    }
+
+    /**
+     * Reads the drive position (meters), or the turning position (radians),
+     * straight from the sensor. Used to sample characterization data faster
+     * than the loop, may be called from another thread.
+     */
+    public default double readCharacterizationPosition(boolean turn) {
+        return 0.0;
+    }
+
+    /** Velocity counterpart of {@link #readCharacterizationPosition}, per second. */
+    public default double readCharacterizationVelocity(boolean turn) {
+        return 0.0;
+    }
+
+    /**
+     * Sends the status frames with position and velocity every 5 ms while
+     * characterizing, instead of the defaults.
+     */
+    public default void setFastStatusFrames(boolean fast) {
+    }
+
+    /** Changes the drive motor's current limit, in amps. */
+    public default void setDriveCurrentLimit(int amps) {
+    }
+
+    /** Zeroes the drive encoder. */
+    public default void resetDriveEncoder() {
+    }
+}
@@ -0,0 +1,103 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.ModuleConstants;
+
+/**
+ * Simulated swerve module. The drive and turning motors are flywheel models,
+ * controlled the way the SPARK MAX loops run them: arbitrary feedforward plus P
+ * for driving, wrapped P on position for turning. The battery is taken to be at
+ * the compensated voltage.
+ */
+public class ModuleIOSim implements ModuleIO {
+    // MAXSwerve steering reduction
+    private static final double kTurningReduction = 9424.0 / 203.0;
+
+    private final DCMotorSim driveSim = new DCMotorSim(
+            DCMotor.getNEO(1), ModuleConstants.kDrivingMotorReduction, 0.025);
+    private final DCMotorSim turnSim = new DCMotorSim(DCMotor.getNEO(1), kTurningReduction, 0.004);
+
+    private double driveSetpoint = 0.0;
+    private double driveFeedforwardVolts = 0.0;
+    private double turnSetpoint = 0.0;
+    private double driveOutput = 0.0;
+    private double turnOutput = 0.0;
+    private double driveOffset = 0.0;
+    // Open loop voltages, NaN while the closed loops are in charge
+    private double driveVolts = Double.NaN;
+    private double turnVolts = Double.NaN;
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+        double wheelRadius = ModuleConstants.kWheelDiameterMeters / 2;
+        double velocity = driveSim.getAngularVelocityRadPerSec() * wheelRadius;
+        driveOutput = MathUtil.clamp(driveFeedforwardVolts / ModuleConstants.kDrivingNominalVoltage
+                + ModuleConstants.kDrivingP * (driveSetpoint - velocity), -1, 1);
+        double turnError = MathUtil.angleModulus(turnSetpoint - turnSim.getAngularPositionRad());
+        turnOutput = MathUtil.clamp(ModuleConstants.kTurningP * turnError, -1, 1);
+
+        if (!Double.isNaN(driveVolts)) {
+            driveOutput = driveVolts / 12.0;
+        }
+        if (!Double.isNaN(turnVolts)) {
+            turnOutput = turnVolts / 12.0;
+        }
+
+        driveSim.setInputVoltage(driveOutput * 12.0);
+        turnSim.setInputVoltage(turnOutput * 12.0);
+        driveSim.update(TimedRobot.kDefaultPeriod);
+        turnSim.update(TimedRobot.kDefaultPeriod);
+
+        inputs.drivePositionMeters = driveSim.getAngularPositionRad() * wheelRadius - driveOffset;
+        inputs.driveVelocityMetersPerSecond = driveSim.getAngularVelocityRadPerSec() * wheelRadius;
+        inputs.driveAppliedOutput = driveOutput;
+        inputs.driveCurrentAmps = Math.abs(driveSim.getCurrentDrawAmps());
+        inputs.turnPositionRadians = MathUtil.inputModulus(turnSim.getAngularPositionRad(), 0, 2 * Math.PI);
+        inputs.turnVelocityRadiansPerSecond = turnSim.getAngularVelocityRadPerSec();
+        inputs.turnAppliedOutput = turnOutput;
+        inputs.turnCurrentAmps = Math.abs(turnSim.getCurrentDrawAmps());
+    }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {
+        driveSetpoint = metersPerSecond;
+        driveFeedforwardVolts = feedforwardVolts;
+        driveVolts = Double.NaN;
+    }
+
+    @Override
+    public void setTurnPosition(double radians) {
+        turnSetpoint = radians;
+        turnVolts = Double.NaN;
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) {
+        driveVolts = volts;
+    }
+
+    @Override
+    public void setTurnVoltage(double volts) {
+        turnVolts = volts;
+    }
+
+    @Override
+    public double readCharacterizationPosition(boolean turn) {
+        return turn ? turnSim.getAngularPositionRad()
+                : driveSim.getAngularPositionRad() * ModuleConstants.kWheelDiameterMeters / 2 - driveOffset;
+    }
+
+    @Override
+    public double readCharacterizationVelocity(boolean turn) {
+        return turn ? turnSim.getAngularVelocityRadPerSec()
+                : driveSim.getAngularVelocityRadPerSec() * ModuleConstants.kWheelDiameterMeters / 2;
+    }
+
+    @Override
+    public void resetDriveEncoder() {
+        driveOffset = driveSim.getAngularPositionRad() * ModuleConstants.kWheelDiameterMeters / 2;
+    }
+}
@@ -0,0 +1,175 @@
+package frc.robot.subsystems;
+
+import com.revrobotics.AbsoluteEncoder;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxAbsoluteEncoder.Type;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+
+import frc.robot.Constants.ModuleConstants;
+import frc.robot.Constants.PowerConstants;
+
+/**
+ * REV MAXSwerve module built with NEOs, SPARKS MAX, and a Through Bore
+ * Encoder.
+ */
+public class ModuleIOSparkMax implements ModuleIO {
+    private final CANSparkMax m_drivingSparkMax;
+    private final CANSparkMax m_turningSparkMax;
+
+    private final RelativeEncoder m_drivingEncoder;
+    private final AbsoluteEncoder m_turningEncoder;
+
+    private final SparkMaxPIDController m_drivingPIDController;
+    private final SparkMaxPIDController m_turningPIDController;
+
+    /**
+     * Configures the driving and turning motor, encoder, and PID controller.
+     */
+    public ModuleIOSparkMax(int drivingCANId, int turningCANId) {
+        m_drivingSparkMax = new CANSparkMax(drivingCANId, MotorType.kBrushless);
+        m_turningSparkMax = new CANSparkMax(turningCANId, MotorType.kBrushless);
+
+        // Factory reset, so we get the SPARKS MAX to a known state before configuring
+        // them. This is useful in case a SPARK MAX is swapped out.
+        m_drivingSparkMax.restoreFactoryDefaults();
+        m_turningSparkMax.restoreFactoryDefaults();
+
+        // Setup encoders and PID controllers for the driving and turning SPARKS MAX.
+        m_drivingEncoder = m_drivingSparkMax.getEncoder();
+        m_turningEncoder = m_turningSparkMax.getAbsoluteEncoder(Type.kDutyCycle);
+        m_drivingPIDController = m_drivingSparkMax.getPIDController();
+        m_turningPIDController = m_turningSparkMax.getPIDController();
+        m_drivingPIDController.setFeedbackDevice(m_drivingEncoder);
+        m_turningPIDController.setFeedbackDevice(m_turningEncoder);
+
+        // Apply position and velocity conversion factors for the driving encoder. The
+        // native units for position and velocity are rotations and RPM, respectively,
+        // but we want meters and meters per second to use with WPILib's swerve APIs.
+        m_drivingEncoder.setPositionConversionFactor(ModuleConstants.kDrivingEncoderPositionFactor);
+        m_drivingEncoder.setVelocityConversionFactor(ModuleConstants.kDrivingEncoderVelocityFactor);
+
+        // Apply position and velocity conversion factors for the turning encoder. We
+        // want these in radians and radians per second to use with WPILib's swerve
+        // APIs.
+        m_turningEncoder.setPositionConversionFactor(ModuleConstants.kTurningEncoderPositionFactor);
+        m_turningEncoder.setVelocityConversionFactor(ModuleConstants.kTurningEncoderVelocityFactor);
+
+        // Invert the turning encoder, since the output shaft rotates in the opposite
+        // direction of
+        // the steering motor in the MAXSwerve Module.
+        m_turningEncoder.setInverted(ModuleConstants.kTurningEncoderInverted);
+
+        // Enable PID wrap around for the turning motor. This will allow the PID
+        // controller to go through 0 to get to the setpoint i.e. going from 350 degrees
+        // to 10 degrees will go through 0 rather than the other direction which is a
+        // longer route.
+        m_turningPIDController.setPositionPIDWrappingEnabled(true);
+        m_turningPIDController.setPositionPIDWrappingMinInput(ModuleConstants.kTurningEncoderPositionPIDMinInput);
+        m_turningPIDController.setPositionPIDWrappingMaxInput(ModuleConstants.kTurningEncoderPositionPIDMaxInput);
+
+        // Set the PID gains for the driving motor. Note these are example gains, and
+        // you
+        // may need to tune them for your own robot!
+        m_drivingPIDController.setP(ModuleConstants.kDrivingP);
+        m_drivingPIDController.setI(ModuleConstants.kDrivingI);
+        m_drivingPIDController.setD(ModuleConstants.kDrivingD);
+        m_drivingPIDController.setFF(ModuleConstants.kDrivingFF);
+        m_drivingPIDController.setOutputRange(ModuleConstants.kDrivingMinOutput,
+                ModuleConstants.kDrivingMaxOutput);
+
+        // Set the PID gains for the turning motor. Note these are example gains, and
+        // you
+        // may need to tune them for your own robot!
+        m_turningPIDController.setP(ModuleConstants.kTurningP);
+        m_turningPIDController.setI(ModuleConstants.kTurningI);
+        m_turningPIDController.setD(ModuleConstants.kTurningD);
+        m_turningPIDController.setFF(ModuleConstants.kTurningFF);
+        m_turningPIDController.setOutputRange(ModuleConstants.kTurningMinOutput,
+                ModuleConstants.kTurningMaxOutput);
+
+        m_drivingSparkMax.setIdleMode(ModuleConstants.kDrivingMotorIdleMode);
+        m_turningSparkMax.setIdleMode(ModuleConstants.kTurningMotorIdleMode);
+        m_drivingSparkMax.setSmartCurrentLimit(ModuleConstants.kDrivingMotorCurrentLimit);
+        m_turningSparkMax.setSmartCurrentLimit(ModuleConstants.kTurningMotorCurrentLimit);
+
+        // Scale the driving output to the battery voltage, so the feedforward and P
+        // gain give the same response as the battery sags.
+        m_drivingSparkMax.enableVoltageCompensation(ModuleConstants.kDrivingNominalVoltage);
+
+        // Save the SPARK MAX configurations. If a SPARK MAX browns out during
+        // operation, it will maintain the above configurations.
+        m_drivingSparkMax.burnFlash();
+        m_turningSparkMax.burnFlash();
+
+        m_drivingEncoder.setPosition(0);
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+        inputs.drivePositionMeters = m_drivingEncoder.getPosition();
+        inputs.driveVelocityMetersPerSecond = m_drivingEncoder.getVelocity();
+        inputs.driveAppliedOutput = m_drivingSparkMax.getAppliedOutput();
+        inputs.driveCurrentAmps = m_drivingSparkMax.getOutputCurrent();
+        inputs.turnPositionRadians = m_turningEncoder.getPosition();
+        inputs.turnVelocityRadiansPerSecond = m_turningEncoder.getVelocity();
+        inputs.turnAppliedOutput = m_turningSparkMax.getAppliedOutput();
+        inputs.turnCurrentAmps = m_turningSparkMax.getOutputCurrent();
+    }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {
+        m_drivingPIDController.setReference(metersPerSecond, CANSparkMax.ControlType.kVelocity, 0,
+                feedforwardVolts, ArbFFUnits.kVoltage);
+    }
+
+    @Override
+    public void setTurnPosition(double radians) {
+        m_turningPIDController.setReference(radians, CANSparkMax.ControlType.kPosition);
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) {
+        m_drivingPIDController.setReference(volts, CANSparkMax.ControlType.kVoltage);
+    }
+
+    @Override
+    public void setTurnVoltage(double volts) {
+        m_turningPIDController.setReference(volts, CANSparkMax.ControlType.kVoltage);
+    }
+
+    @Override
+    public double readCharacterizationPosition(boolean turn) {
+        return turn ? m_turningEncoder.getPosition() : m_drivingEncoder.getPosition();
+    }
+
+    @Override
+    public double readCharacterizationVelocity(boolean turn) {
+        return turn ? m_turningEncoder.getVelocity() : m_drivingEncoder.getVelocity();
+    }
+
+    @Override
+    public void setFastStatusFrames(boolean fast) {
+        // Status 1 carries velocity, 2 position, 5 and 6 the absolute encoder
+        m_drivingSparkMax.setPeriodicFramePeriod(PeriodicFrame.kStatus1, fast ? 5 : 20);
+        m_drivingSparkMax.setPeriodicFramePeriod(PeriodicFrame.kStatus2, fast ? 5 : 20);
+        m_turningSparkMax.setPeriodicFramePeriod(PeriodicFrame.kStatus5, fast ? 5 : 200);
+        m_turningSparkMax.setPeriodicFramePeriod(PeriodicFrame.kStatus6, fast ? 5 : 200);
+    }
+
+    @Override
+    public void setDriveCurrentLimit(int amps) {
+        // Sent from the robot loop, don't wait for the acknowledgement
+        m_drivingSparkMax.setCANTimeout(0);
+        m_drivingSparkMax.setSmartCurrentLimit(amps);
+        m_drivingSparkMax.setCANTimeout(PowerConstants.kSparkMaxCanTimeoutMs);
+    }
+
+    @Override
+    public void resetDriveEncoder() {
+        m_drivingEncoder.setPosition(0);
+    }
+}
@@ -0,0 +1,31 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/** Hardware interface for the battery and power distribution. */
+public interface PowerIO {
+    public static class PowerIOInputs implements LoggableInputs {
+        public double batteryVoltage = 12.0;
+        public double totalCurrentAmps = 0.0;
+        public boolean brownedOut = false;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("BatteryVoltage", batteryVoltage);
+            table.put("TotalCurrentAmps", totalCurrentAmps);
+            table.put("BrownedOut", brownedOut);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            batteryVoltage = table.getDouble("BatteryVoltage", batteryVoltage);
+            totalCurrentAmps = table.getDouble("TotalCurrentAmps", totalCurrentAmps);
+            brownedOut = table.getBoolean("BrownedOut", brownedOut);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(PowerIOInputs inputs) {
+    }
+}
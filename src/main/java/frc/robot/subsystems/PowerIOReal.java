@@ -0,0 +1,16 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj.PowerDistribution;
+import edu.wpi.first.wpilibj.RobotController;
+
+/** Battery voltage from the roboRIO, total current from the power distribution hub. */
+public class PowerIOReal implements PowerIO {
+    private final PowerDistribution powerDistribution = new PowerDistribution();
+
+    @Override
+    public void updateInputs(PowerIOInputs inputs) {
+        inputs.batteryVoltage = RobotController.getBatteryVoltage();
+        inputs.totalCurrentAmps = powerDistribution.getTotalCurrent();
+        inputs.brownedOut = RobotController.isBrownedOut();
+    }
+}
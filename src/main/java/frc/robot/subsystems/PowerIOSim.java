@@ -0,0 +1,32 @@
+package frc.robot.subsystems;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+
+/**
+ * Simulated battery. The voltage sags with the current the simulated
+ * mechanisms draw, through the default battery resistance.
+ */
+public class PowerIOSim implements PowerIO {
+    // roboRIO brownout threshold
+    private static final double kBrownoutVolts = 6.8;
+
+    private final DoubleSupplier loadAmps;
+
+    public PowerIOSim(DoubleSupplier loadAmps) {
+        this.loadAmps = loadAmps;
+    }
+
+    @Override
+    public void updateInputs(PowerIOInputs inputs) {
+        double current = loadAmps.getAsDouble();
+        double voltage = BatterySim.calculateDefaultBatteryLoadedVoltage(current);
+        RoboRioSim.setVInVoltage(voltage);
+
+        inputs.batteryVoltage = voltage;
+        inputs.totalCurrentAmps = current;
+        inputs.brownedOut = voltage < kBrownoutVolts;
+    }
+}
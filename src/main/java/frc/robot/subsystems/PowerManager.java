@@ -0,0 +1,160 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.PowerConstants;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
+
+import static frc.robot.Constants.*;
+
+/**
+ * Shares the battery between the drive, arm and Schlucker.
+ *
+ * <p>
+ * Each loop the battery voltage and total current are checked against a
+ * normal, reduced and critical level. Levels are entered as soon as a
+ * threshold is crossed and left one at a time, only after the battery has
+ * stayed above a higher exit threshold for a while, so the limits do not
+ * flicker. Each level has its own current limits and slew rates, and while the
+ * arm is moving the drive gives up some of its share so the arm can finish.
+ * Limits are only sent to the motor controllers when they change.
+ *
+ * <p>
+ * Created after the subsystems it manages so it runs after their periodic and
+ * sees this loop's currents.
+ */
+public class PowerManager extends SubsystemBase {
+    public enum Level {
+        NORMAL,
+        REDUCED,
+        CRITICAL
+    }
+
+    private final PowerIO io;
+    private final PowerIO.PowerIOInputs inputs = new PowerIO.PowerIOInputs();
+    private final DriveSubsystem drive;
+    private final Arm arm;
+    private final Schlucker schlucker;
+
+    private final LinearFilter voltageFilter = LinearFilter.singlePoleIIR(
+            PowerConstants.kVoltageFilterSeconds, TimedRobot.kDefaultPeriod);
+    private Level level = Level.NORMAL;
+    private double recoveringSince = Double.NaN;
+    private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/PowerManager");
+
+    private final Telemetry.DoubleEntry voltageEntry = Telemetry.doubleEntry("Power/FilteredVoltage", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry levelEntry = Telemetry.doubleEntry("Power/Level", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry driveLimitEntry = Telemetry.doubleEntry("Power/DriveLimitAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry shoulderLimitEntry = Telemetry.doubleEntry("Power/ShoulderLimitAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry elbowLimitEntry = Telemetry.doubleEntry("Power/ElbowLimitAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry schluckerLimitEntry = Telemetry.doubleEntry("Power/SchluckerLimitAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry slewScaleEntry = Telemetry.doubleEntry("Power/DriveSlewScale", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry driveCurrentEntry = Telemetry.doubleEntry("Power/DriveAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry armCurrentEntry = Telemetry.doubleEntry("Power/ArmAmps", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry schluckerCurrentEntry = Telemetry.doubleEntry("Power/SchluckerAmps", Tier.LOG_ONLY);
+
+    public PowerManager(PowerIO io, DriveSubsystem drive, Arm arm, Schlucker schlucker) {
+        this.io = io;
+        this.drive = drive;
+        this.arm = arm;
+        this.schlucker = schlucker;
+        Logger.getInstance().recordOutput("Power/Decision", "Starting at " + level);
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public void periodic() {
+        profile.start();
+        io.updateInputs(inputs);
+        Logger.getInstance().processInputs("Power", inputs);
+        double voltage = voltageFilter.calculate(inputs.batteryVoltage);
+        double now = Logger.getInstance().getTimestamp() * 1e-6;
+
+        updateLevel(voltage, now);
+        allocate();
+
+        voltageEntry.set(voltage);
+        levelEntry.set(level.ordinal());
+        driveCurrentEntry.set(drive.getCurrentAmps());
+        armCurrentEntry.set(arm.getCurrentAmps());
+        schluckerCurrentEntry.set(schlucker.getCurrentAmps());
+        profile.stop();
+    }
+
+    private void updateLevel(double voltage, double now) {
+        Level entered = Level.NORMAL;
+        String reason = "";
+        if (inputs.brownedOut) {
+            entered = Level.CRITICAL;
+            reason = "roboRIO browned out";
+        } else if (voltage < PowerConstants.kCriticalEnterVolts) {
+            entered = Level.CRITICAL;
+            reason = String.format("battery at %.2f V", voltage);
+        } else if (voltage < PowerConstants.kReducedEnterVolts) {
+            entered = Level.REDUCED;
+            reason = String.format("battery at %.2f V", voltage);
+        } else if (inputs.totalCurrentAmps > PowerConstants.kReducedCurrentAmps) {
+            entered = Level.REDUCED;
+            reason = String.format("drawing %.0f A", inputs.totalCurrentAmps);
+        }
+
+        if (entered.ordinal() > level.ordinal()) {
+            setLevel(entered, reason);
+            return;
+        }
+        if (level == Level.NORMAL) {
+            return;
+        }
+
+        // Step down one level once the battery has recovered for long enough
+        boolean recovered = level == Level.CRITICAL
+                ? !inputs.brownedOut && voltage > PowerConstants.kCriticalExitVolts
+                : voltage > PowerConstants.kReducedExitVolts
+                        && inputs.totalCurrentAmps < PowerConstants.kReducedCurrentAmps;
+        if (!recovered) {
+            recoveringSince = Double.NaN;
+        } else if (Double.isNaN(recoveringSince)) {
+            recoveringSince = now;
+        } else if (now - recoveringSince >= PowerConstants.kRecoverySeconds) {
+            setLevel(Level.values()[level.ordinal() - 1], String.format("recovered to %.2f V", voltage));
+        }
+    }
+
+    private void setLevel(Level newLevel, String reason) {
+        Logger.getInstance().recordOutput("Power/Decision", level + " -> " + newLevel + ", " + reason);
+        level = newLevel;
+        recoveringSince = Double.NaN;
+    }
+
+    /** Hands out this level's limits, favoring whichever mechanism is busy. */
+    private void allocate() {
+        int index = level.ordinal();
+        int driveLimit = arm.isMoving()
+                ? PowerConstants.kDriveCurrentLimitsArmMoving[index]
+                : PowerConstants.kDriveCurrentLimits[index];
+        double slewScale = PowerConstants.kDriveSlewRateScales[index];
+        int shoulderLimit = PowerConstants.kShoulderCurrentLimits[index];
+        int elbowLimit = PowerConstants.kElbowCurrentLimits[index];
+        int schluckerLimit = schlucker.isIntaking()
+                ? SCHLUCKER_CURRENT_LIMIT
+                : PowerConstants.kSchluckerHoldCurrentLimits[index];
+
+        drive.setPowerLimits(driveLimit, slewScale);
+        arm.setPowerLimits(shoulderLimit, elbowLimit, PowerConstants.kArmAccelerationScales[index]);
+        schlucker.setCurrentLimit(schluckerLimit);
+
+        driveLimitEntry.set(driveLimit);
+        slewScaleEntry.set(slewScale);
+        shoulderLimitEntry.set(shoulderLimit);
+        elbowLimitEntry.set(elbowLimit);
+        schluckerLimitEntry.set(schluckerLimit);
+    }
+}
@@ -1,66 +1,62 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
-
-import com.revrobotics.CANSparkMax.ControlType;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.SparkMaxPIDController;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import org.littletonrobotics.junction.Logger;
 
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.utils.LoopProfiler;
+import frc.utils.Telemetry;
+import frc.utils.Telemetry.Tier;
 
 import static frc.robot.Constants.*;
 
 public class Schlucker extends SubsystemBase {
-    private CANSparkMax shluckerMotor;
-    private SparkMaxPIDController pid;
+    private final SchluckerIO io;
+    private final SchluckerIO.SchluckerIOInputs inputs = new SchluckerIO.SchluckerIOInputs();
 
     public enum ItemHeld {
         CONE,
         CUBE,
-        NONE  
+        NONE
     }
 
     private ItemHeld item_held = ItemHeld.NONE;
     private ItemHeld saved_item_held = ItemHeld.NONE;
-    
-    public Schlucker() {
-        shluckerMotor = new CANSparkMax(6, MotorType.kBrushed);
-        shluckerMotor.setSmartCurrentLimit(10, 10);
-        shluckerMotor.setSecondaryCurrentLimit(20);
-        shluckerMotor.restoreFactoryDefaults();
-        shluckerMotor.setInverted(false);
-        shluckerMotor.setIdleMode(IdleMode.kBrake);
-        pid = shluckerMotor.getPIDController();
-        
-        // set p value of pid to 1
-        pid.setP(1.0);
-        pid.setI(0);
-        pid.setD(0);
-        shluckerMotor.burnFlash();
-    }
+    private boolean intaking = false;
+    private boolean pieceConfirmed = false;
+    private int currentLimit = SCHLUCKER_CURRENT_LIMIT;
+
+    private final Telemetry.BooleanEntry hasPieceEntry = Telemetry.booleanEntry("Schlucker/HasPiece", Tier.FULL);
+    private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/Schlucker");
 
+    public Schlucker(SchluckerIO io) {
+        this.io = io;
+    }
 
     public void intakeCone(){
-        pid.setReference(-0.7, ControlType.kDutyCycle);
+        io.setOutput(-SCHLUCKER_INTAKE_PERCENT);
         item_held = ItemHeld.CONE;
         saved_item_held = item_held;
+        startDetection();
     }
 
     public void intakeCube(){
-        pid.setReference(0.7, ControlType.kDutyCycle);
+        io.setOutput(SCHLUCKER_INTAKE_PERCENT);
         item_held = ItemHeld.CUBE;
         saved_item_held = item_held;
+        startDetection();
     }
 
     public void eject(){
+        intaking = false;
+        pieceConfirmed = false;
         switch(saved_item_held) {
         case CONE:
-            pid.setReference(0.7, ControlType.kDutyCycle);
+            io.setOutput(SCHLUCKER_INTAKE_PERCENT);
             break;
         case CUBE:
-            pid.setReference(-0.7, ControlType.kDutyCycle);
+            io.setOutput(-SCHLUCKER_INTAKE_PERCENT);
             break;
         default:
             break;
@@ -69,12 +65,15 @@ public class Schlucker extends SubsystemBase {
     }
 
     public void hold() {
+        intaking = false;
+        // A confirmed piece is seated and needs less duty to keep it there
+        double percent = pieceConfirmed ? SCHLUCKER_MIN_HOLD_PERCENT : SCHLUCKER_HOLD_PERCENT;
         switch(item_held) {
         case CONE:
-            pid.setReference(-SCHLUCKER_HOLD_PERCENT, ControlType.kDutyCycle);
+            io.setOutput(-percent);
             break;
         case CUBE:
-            pid.setReference(SCHLUCKER_HOLD_PERCENT, ControlType.kDutyCycle);
+            io.setOutput(percent);
             break;
         default:
             break;
@@ -82,16 +81,64 @@ public class Schlucker extends SubsystemBase {
     }
 
     public void stop() {
-        pid.setReference(0, ControlType.kDutyCycle);
+        intaking = false;
+        io.setOutput(0);
     }
 
     public ItemHeld getHeldPiece() {
         return item_held;
     }
 
+    /**
+     * Whether the intake current has confirmed a game piece was acquired, as
+     * opposed to just having been asked to intake one.
+     */
+    public boolean hasConfirmedPiece() {
+        return pieceConfirmed;
+    }
+
+    /** Returns a command that finishes once a game piece is confirmed. */
+    public Command waitForPiece() {
+        return Commands.waitUntil(this::hasConfirmedPiece);
+    }
+
+    /** Whether the rollers are pulling a piece in, as opposed to holding or ejecting. */
+    public boolean isIntaking() {
+        return intaking;
+    }
+
+    public double getCurrentAmps() {
+        return inputs.currentAmps;
+    }
+
+    /** Changes the motor's current limit, only sending it when it changed. */
+    public void setCurrentLimit(int amps) {
+        if (amps != currentLimit) {
+            io.setCurrentLimit(amps);
+            currentLimit = amps;
+        }
+    }
+
+    private void startDetection() {
+        pieceConfirmed = false;
+        intaking = true;
+        io.restartStallDetection();
+    }
+
     @Override
     public void periodic() {
-        SmartDashboard.putNumber("shlucker output", shluckerMotor.getAppliedOutput());
+        profile.start();
+        io.updateInputs(inputs);
+        Logger.getInstance().processInputs("Schlucker", inputs);
+
+        // A piece jammed against the rollers stalls the motor
+        if (intaking && inputs.stallSeconds >= SCHLUCKER_STALL_TIME) {
+            pieceConfirmed = true;
+            hold();
+        }
+
+        hasPieceEntry.set(pieceConfirmed);
+        profile.stop();
     }
 
     @Override
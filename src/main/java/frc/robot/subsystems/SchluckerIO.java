@@ -0,0 +1,48 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/** Hardware interface for the Schlucker intake. */
+public interface SchluckerIO {
+    public static class SchluckerIOInputs implements LoggableInputs {
+        public double appliedOutput = 0.0;
+        /** Filtered output current. */
+        public double currentAmps = 0.0;
+        /**
+         * How long the filtered current has stayed above the stall threshold, not
+         * counting the start-up inrush after detection was restarted.
+         */
+        public double stallSeconds = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("AppliedOutput", appliedOutput);
+            table.put("CurrentAmps", currentAmps);
+            table.put("StallSeconds", stallSeconds);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            appliedOutput = table.getDouble("AppliedOutput", appliedOutput);
+            currentAmps = table.getDouble("CurrentAmps", currentAmps);
+            stallSeconds = table.getDouble("StallSeconds", stallSeconds);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(SchluckerIOInputs inputs) {
+    }
+
+    /** Runs the rollers at a duty cycle, positive pulls cubes in. */
+    public default void setOutput(double percent) {
+    }
+
+    /** Restarts stall timing, ignoring the inrush that follows. */
+    public default void restartStallDetection() {
+    }
+
+    /** Changes the smart current limit, in amps. */
+    public default void setCurrentLimit(int amps) {
+    }
+}
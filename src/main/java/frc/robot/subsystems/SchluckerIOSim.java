@@ -0,0 +1,41 @@
+package frc.robot.subsystems;
+
+import static frc.robot.Constants.*;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Simulated intake. A game piece arrives after the rollers have run at intake
+ * speed for a moment, after which the current rises to a stall.
+ */
+public class SchluckerIOSim implements SchluckerIO {
+    private static final double kPieceArrivalSeconds = 0.75;
+    private static final double kFreeCurrent = 2.0;
+
+    private double output = 0.0;
+    private double intakeSeconds = 0.0;
+    private double stallSeconds = 0.0;
+
+    @Override
+    public void updateInputs(SchluckerIOInputs inputs) {
+        boolean intaking = Math.abs(output) >= SCHLUCKER_INTAKE_PERCENT;
+        intakeSeconds = intaking ? intakeSeconds + TimedRobot.kDefaultPeriod : 0.0;
+        boolean stalled = intakeSeconds > kPieceArrivalSeconds;
+        stallSeconds = stalled ? stallSeconds + TimedRobot.kDefaultPeriod : 0.0;
+
+        inputs.appliedOutput = output;
+        inputs.currentAmps = stalled ? SCHLUCKER_STALL_CURRENT * 1.5 : Math.abs(output) * kFreeCurrent;
+        inputs.stallSeconds = stallSeconds;
+    }
+
+    @Override
+    public void setOutput(double percent) {
+        output = percent;
+    }
+
+    @Override
+    public void restartStallDetection() {
+        intakeSeconds = 0.0;
+        stallSeconds = 0.0;
+    }
+}
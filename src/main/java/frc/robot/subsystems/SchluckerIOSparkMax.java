@@ -0,0 +1,109 @@
+package frc.robot.subsystems;
+
+import static frc.robot.Constants.*;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import com.revrobotics.SparkMaxPIDController;
+
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * Brushed motor on a SPARK MAX. Output current is sampled faster than the
+ * robot loop on a notifier, filtered, and timed against the stall threshold so
+ * a game piece can be detected within a few milliseconds of it seating.
+ */
+public class SchluckerIOSparkMax implements SchluckerIO {
+    private final CANSparkMax shluckerMotor;
+    private final SparkMaxPIDController pid;
+
+    // Current sampling runs on the notifier thread, these are shared with it
+    private final Notifier currentSampler = new Notifier(this::sampleCurrent);
+    private final LinearFilter currentFilter = LinearFilter.singlePoleIIR(
+            SCHLUCKER_CURRENT_FILTER_TIME, SCHLUCKER_SAMPLE_PERIOD);
+    private volatile boolean restartDetection = false;
+    private volatile double filteredCurrent = 0.0;
+    private volatile int stallSamples = 0;
+    private int samplesSinceStart = 0;
+
+    public SchluckerIOSparkMax() {
+        shluckerMotor = new CANSparkMax(6, MotorType.kBrushed);
+        // Reset first, or it clears the current limits the stall threshold relies on
+        shluckerMotor.restoreFactoryDefaults();
+        shluckerMotor.setSmartCurrentLimit(SCHLUCKER_CURRENT_LIMIT, SCHLUCKER_CURRENT_LIMIT);
+        shluckerMotor.setSecondaryCurrentLimit(20);
+        shluckerMotor.setInverted(false);
+        shluckerMotor.setIdleMode(IdleMode.kBrake);
+        // Output current comes in status frame 1, send it as often as we sample
+        shluckerMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus1, (int) (SCHLUCKER_SAMPLE_PERIOD * 1000));
+        pid = shluckerMotor.getPIDController();
+
+        // set p value of pid to 1
+        pid.setP(1.0);
+        pid.setI(0);
+        pid.setD(0);
+        shluckerMotor.burnFlash();
+
+        currentSampler.setName("Schlucker Current");
+        currentSampler.startPeriodic(SCHLUCKER_SAMPLE_PERIOD);
+    }
+
+    @Override
+    public void updateInputs(SchluckerIOInputs inputs) {
+        inputs.appliedOutput = shluckerMotor.getAppliedOutput();
+        inputs.currentAmps = filteredCurrent;
+        // Until the sampler has seen a restart, the count is still the old one
+        inputs.stallSeconds = restartDetection ? 0.0 : stallSamples * SCHLUCKER_SAMPLE_PERIOD;
+    }
+
+    @Override
+    public void setOutput(double percent) {
+        pid.setReference(percent, ControlType.kDutyCycle);
+    }
+
+    @Override
+    public void restartStallDetection() {
+        // The sampler clears the count itself, a write from here could be lost
+        // under its increment
+        restartDetection = true;
+    }
+
+    @Override
+    public void setCurrentLimit(int amps) {
+        // Sent from the robot loop, don't wait for the acknowledgement
+        shluckerMotor.setCANTimeout(0);
+        shluckerMotor.setSmartCurrentLimit(amps, amps);
+        shluckerMotor.setCANTimeout(PowerConstants.kSparkMaxCanTimeoutMs);
+    }
+
+    /**
+     * Runs on the notifier thread. A piece jammed against the rollers stalls the
+     * motor, so the filtered current staying above the threshold after the
+     * start-up inrush means one was acquired.
+     */
+    private void sampleCurrent() {
+        double current = shluckerMotor.getOutputCurrent();
+        if (restartDetection) {
+            currentFilter.reset();
+            samplesSinceStart = 0;
+            stallSamples = 0;
+            // Cleared last, so a reader that sees it cleared sees the reset count
+            restartDetection = false;
+        }
+        filteredCurrent = currentFilter.calculate(current);
+
+        samplesSinceStart++;
+        if (samplesSinceStart * SCHLUCKER_SAMPLE_PERIOD < SCHLUCKER_INRUSH_TIME) {
+            return;
+        }
+        if (filteredCurrent > SCHLUCKER_STALL_CURRENT) {
+            stallSamples++;
+        } else {
+            stallSamples = 0;
+        }
+    }
+}
@@ -1,90 +1,73 @@
 package frc.robot.subsystems;
 
 import java.io.IOException;
-import java.util.Optional;
 
-import org.photonvision.EstimatedRobotPose;
-import org.photonvision.PhotonCamera;
-import org.photonvision.PhotonPoseEstimator;
-import org.photonvision.targeting.PhotonPipelineResult;
-import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Pose3d;
-import edu.wpi.first.math.geometry.Rotation3d;
-import edu.wpi.first.math.geometry.Transform3d;
-import edu.wpi.first.math.geometry.Translation3d;
-import edu.wpi.first.math.util.Units;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.utils.LoopProfiler;
 
 
 public class Vision extends SubsystemBase {
-  PhotonCamera Camera;
-  PhotonPoseEstimator poseEstimator;
-  AprilTagFieldLayout layout;
+  private static AprilTagFieldLayout fieldLayout;
+
+  private final VisionIO io;
+  private final VisionIO.VisionIOInputs inputs = new VisionIO.VisionIOInputs();
 
   private boolean hasTarget = false;
 
   private final DriveSubsystem m_chassis;
+  private final LoopProfiler.Section profile = LoopProfiler.section("Subsystem/Vision");
 
   /** Creates a new Vision. */
-  public Vision(String CamName, DriveSubsystem chassis) {
-    Camera = new PhotonCamera(CamName);
+  public Vision(VisionIO io, DriveSubsystem chassis) {
+    this.io = io;
     m_chassis = chassis;
-    
-    try {
-      layout = AprilTagFieldLayout.loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
-      poseEstimator = new PhotonPoseEstimator(
-        layout, 
-        PoseStrategy.MULTI_TAG_PNP, 
-        Camera, 
-        new Transform3d(
-          new Translation3d(
-            Units.inchesToMeters(0),
-            Units.feetToMeters(0),
-            Units.feetToMeters(0)
-          ),
-          new Rotation3d()
-        )
-      );
-      poseEstimator.setLastPose(new Pose3d());
-      
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
   }
 
+  /**
+   * Returns the 2023 AprilTag layout, loaded on first use, or null if it could
+   * not be loaded.
+   */
+  public static synchronized AprilTagFieldLayout getFieldLayout() {
+    if (fieldLayout == null) {
+      try {
+        fieldLayout = AprilTagFieldLayout.loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
+      } catch (IOException e) {
+        DriverStation.reportError("Could not load AprilTag layout: " + e.getMessage(), false);
+      }
+    }
+    return fieldLayout;
+  }
 
   public boolean hasTarget() {
     return hasTarget;
   }
   void setLastPose(Pose2d p2d) {
-    poseEstimator.setLastPose(p2d);
+    io.setLastPose(p2d);
   }
 
   @Override
   public void periodic() {
     // This method will be called once per scheduler run
-    if(!Camera.isConnected()) return;
+    profile.start();
+    io.updateInputs(inputs);
+    Logger.getInstance().processInputs("Vision", inputs);
+    if(!inputs.connected) {
+      profile.stop();
+      return;
+    }
 
-    //SmartDashboard.putBoolean("PhotonVision Works", Camera.isConnected());
-    
-    PhotonPipelineResult result = Camera.getLatestResult();
-    if(result.hasTargets()){
-      hasTarget = true;
-      //VM.onVisionTargetSeen(result.getBestTarget());
-      Optional<EstimatedRobotPose> pose = poseEstimator.update();
-      if(pose.isPresent()){
-        //Pose is valid
-        Pose3d p3d = pose.get().estimatedPose;
-        //SmartDashboard.putString("VisionEayes",("" + p3d.toPose2d().getX() + ',' + p3d.toPose2d().getY()));
-        //Field.setRobotPose(p3d.toPose2d());
-        poseEstimator.setLastPose(p3d.toPose2d());
-        m_chassis.resetOdometry(p3d.toPose2d());
-      }
-    } else {
-      hasTarget = false;
+    hasTarget = inputs.hasTargets;
+    if(inputs.hasPose){
+      //Pose is valid
+      m_chassis.resetOdometry(new Pose2d(inputs.poseX, inputs.poseY, new Rotation2d(inputs.poseRotationRadians)));
     }
+    profile.stop();
   }
 }
@@ -0,0 +1,50 @@
+package frc.robot.subsystems;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/** Hardware interface for the AprilTag camera. */
+public interface VisionIO {
+    public static class VisionIOInputs implements LoggableInputs {
+        public boolean connected = false;
+        public boolean hasTargets = false;
+        /** Whether a field pose was estimated this cycle. */
+        public boolean hasPose = false;
+        public double poseX = 0.0;
+        public double poseY = 0.0;
+        public double poseRotationRadians = 0.0;
+        public double timestampSeconds = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("Connected", connected);
+            table.put("HasTargets", hasTargets);
+            table.put("HasPose", hasPose);
+            table.put("PoseX", poseX);
+            table.put("PoseY", poseY);
+            table.put("PoseRotationRadians", poseRotationRadians);
+            table.put("TimestampSeconds", timestampSeconds);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            connected = table.getBoolean("Connected", connected);
+            hasTargets = table.getBoolean("HasTargets", hasTargets);
+            hasPose = table.getBoolean("HasPose", hasPose);
+            poseX = table.getDouble("PoseX", poseX);
+            poseY = table.getDouble("PoseY", poseY);
+            poseRotationRadians = table.getDouble("PoseRotationRadians", poseRotationRadians);
+            timestampSeconds = table.getDouble("TimestampSeconds", timestampSeconds);
+        }
+    }
+
+    /** Updates the set of loggable inputs. */
+    public default void updateInputs(VisionIOInputs inputs) {
+    }
+
+    /** Seeds the pose estimator with a known robot pose. */
+    public default void setLastPose(Pose2d pose) {
+    }
+}
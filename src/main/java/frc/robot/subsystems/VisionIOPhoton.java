@@ -0,0 +1,74 @@
+package frc.robot.subsystems;
+
+import java.util.Optional;
+
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.util.Units;
+
+/** PhotonVision camera with a multi-tag pose estimator. */
+public class VisionIOPhoton implements VisionIO {
+  private final PhotonCamera camera;
+  private PhotonPoseEstimator poseEstimator;
+
+  public VisionIOPhoton(String camName, AprilTagFieldLayout layout) {
+    camera = new PhotonCamera(camName);
+    if (layout != null) {
+      poseEstimator = new PhotonPoseEstimator(
+        layout, 
+        PoseStrategy.MULTI_TAG_PNP, 
+        camera, 
+        new Transform3d(
+          new Translation3d(
+            Units.inchesToMeters(0),
+            Units.feetToMeters(0),
+            Units.feetToMeters(0)
+          ),
+          new Rotation3d()
+        )
+      );
+      poseEstimator.setLastPose(new Pose3d());
+    }
+  }
+
+  @Override
+  public void updateInputs(VisionIOInputs inputs) {
+    inputs.connected = camera.isConnected();
+    inputs.hasPose = false;
+    if (!inputs.connected) {
+      return;
+    }
+
+    PhotonPipelineResult result = camera.getLatestResult();
+    inputs.hasTargets = result.hasTargets();
+    if (inputs.hasTargets && poseEstimator != null) {
+      Optional<EstimatedRobotPose> pose = poseEstimator.update(result);
+      if (pose.isPresent()) {
+        Pose2d p2d = pose.get().estimatedPose.toPose2d();
+        inputs.hasPose = true;
+        inputs.poseX = p2d.getX();
+        inputs.poseY = p2d.getY();
+        inputs.poseRotationRadians = p2d.getRotation().getRadians();
+        inputs.timestampSeconds = pose.get().timestampSeconds;
+        poseEstimator.setLastPose(p2d);
+      }
+    }
+  }
+
+  @Override
+  public void setLastPose(Pose2d pose) {
+    if (poseEstimator != null) {
+      poseEstimator.setLastPose(pose);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package frc.utils;
+
+import frc.robot.Constants.ArmConstants;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmIO;
+import frc.robot.subsystems.ArmIOSim;
+import frc.robot.subsystems.ArmState;
+
+/**
+ * Runs every arm preset transition through {@link ArmIOSim} as fast as the
+ * machine allows and prints settling time and overshoot for each one.
+ *
+ * <p>
+ * Waypoints are followed the same way {@code ArmStateCommand} does: the next
+ * one is commanded once both joints are within tolerance, and a waypoint that
+ * times out ends the move, reported as aborted.
+ */
+public class ArmSimBenchmark {
+    private static final double kDt = 0.02;
+    private static final double kMaxMoveSeconds = 5.0;
+    // How long both joints have to stay in tolerance to count as settled
+    private static final double kSettleWindowSeconds = 0.25;
+
+    public static void main(String... args) {
+        long start = System.nanoTime();
+        int moves = 0;
+        System.out.printf("%-14s %-14s %10s %12s %12s%n",
+                "from", "to", "settle (s)", "shoulder os", "elbow os");
+        for (ArmState from : ArmState.values()) {
+            for (ArmState to : ArmState.values()) {
+                if (from == to) {
+                    continue;
+                }
+                runMove(from, to);
+                moves++;
+            }
+        }
+        double elapsed = (System.nanoTime() - start) * 1e-9;
+        System.out.printf("%d moves simulated in %.2f s of wall time%n", moves, elapsed);
+    }
+
+    /**
+     * Sends references the way {@code Arm} does, switching between profile and
+     * hold through {@link Arm#selectProfiled}, holding instead of profiling
+     * through the encoder wrap, and adding gravity feedforward. The
+     * simulated controllers only restart a profile when the target or mode
+     * changes, so sending every cycle is equivalent to sending on change.
+     */
+    private static void sendReferences(ArmIOSim sim, ArmIO.ArmIOInputs inputs, ArmState target, boolean[] profiled) {
+        double shoulderFF = Arm.shoulderFeedforward(inputs.shoulderAngle, inputs.elbowAngle);
+        double elbowFF = Arm.elbowFeedforward(inputs.shoulderAngle, inputs.elbowAngle);
+        profiled[0] = Arm.selectProfiled(profiled[0], target.shoulderAngle, inputs.shoulderAngle);
+        profiled[1] = Arm.selectProfiled(profiled[1], target.elbowAngle, inputs.elbowAngle);
+        sim.setShoulderReference(target.shoulderAngle,
+                profiled[0] && !Arm.crossesWrap(target.shoulderAngle, inputs.shoulderAngle), shoulderFF);
+        sim.setElbowReference(target.elbowAngle,
+                profiled[1] && !Arm.crossesWrap(target.elbowAngle, inputs.elbowAngle), elbowFF);
+    }
+
+    private static void runMove(ArmState from, ArmState to) {
+        ArmIOSim sim = new ArmIOSim(from.shoulderAngle, from.elbowAngle);
+        ArmIO.ArmIOInputs inputs = new ArmIO.ArmIOInputs();
+        ArmState[] path = ArmState.path(from, to);
+
+        // Overshoot is measured past the final target, in the direction of travel
+        // of the last move
+        ArmState last = path.length > 1 ? path[path.length - 2] : from;
+        double shoulderDirection = Math.signum(ArmState.angleError(to.shoulderAngle, last.shoulderAngle));
+        double elbowDirection = Math.signum(ArmState.angleError(to.elbowAngle, last.elbowAngle));
+        double shoulderOvershoot = 0;
+        double elbowOvershoot = 0;
+
+        // Shoulder and elbow mode, both start holding like a freshly enabled Arm
+        boolean[] profiled = new boolean[2];
+        int index = 0;
+        double waypointTime = 0;
+        boolean aborted = false;
+        double inToleranceSince = -1;
+        double settleTime = Double.NaN;
+        sim.updateInputs(inputs);
+
+        for (double t = 0; t < kMaxMoveSeconds; t += kDt) {
+            // The last waypoint stays commanded after it is reached
+            ArmState target = path[Math.min(index, path.length - 1)];
+            sendReferences(sim, inputs, target, profiled);
+            sim.updateInputs(inputs);
+            boolean inTolerance = Math.abs(ArmState.angleError(target.shoulderAngle,
+                    inputs.shoulderAngle)) < ArmConstants.kStateToleranceDegrees
+                    && Math.abs(ArmState.angleError(target.elbowAngle,
+                            inputs.elbowAngle)) < ArmConstants.kStateToleranceDegrees;
+
+            if (index < path.length) {
+                waypointTime += kDt;
+                if (inTolerance) {
+                    index++;
+                    waypointTime = 0;
+                } else if (waypointTime >= ArmConstants.kWaypointTimeoutSeconds) {
+                    aborted = true;
+                    break;
+                }
+                if (index < path.length) {
+                    continue;
+                }
+            }
+
+            shoulderOvershoot = Math.max(shoulderOvershoot,
+                    -shoulderDirection * ArmState.angleError(to.shoulderAngle, inputs.shoulderAngle));
+            elbowOvershoot = Math.max(elbowOvershoot,
+                    -elbowDirection * ArmState.angleError(to.elbowAngle, inputs.elbowAngle));
+
+            if (inTolerance) {
+                if (inToleranceSince < 0) {
+                    inToleranceSince = t;
+                }
+                if (Double.isNaN(settleTime) && t - inToleranceSince >= kSettleWindowSeconds) {
+                    settleTime = inToleranceSince;
+                }
+            } else {
+                inToleranceSince = -1;
+                settleTime = Double.NaN;
+            }
+        }
+
+        System.out.printf("%-14s %-14s %10s %12.1f %12.1f%n", from, to,
+                aborted ? "aborted" : Double.isNaN(settleTime) ? "never" : String.format("%.2f", settleTime),
+                shoulderOvershoot, elbowOvershoot);
+    }
+}
@@ -0,0 +1,138 @@
+package frc.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.utils.Telemetry.Tier;
+
+/**
+ * Runs another receiver (normally the {@code WPILOGWriter}) on its own thread
+ * behind a bounded queue.
+ *
+ * <p>
+ * AdvantageKit calls every receiver one after another from a single thread, so
+ * a slow USB stick holds up NetworkTables and fills the logger's own queue.
+ * Here each cycle is queued and returns immediately. When the queue is full the
+ * cycle is dropped and counted rather than waited on, so the robot loop never
+ * blocks on the stick.
+ *
+ * <p>
+ * The wrapped receiver is only ever called from the writer thread, including
+ * its {@code end()}, since {@code WPILOGWriter} is not thread-safe.
+ */
+public class AsyncLogWriter implements LogDataReceiver {
+    /** About five seconds of cycles at 50 Hz. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final LogDataReceiver writer;
+    private final BlockingQueue<LogTable> queue;
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    private final AtomicLong droppedCycles = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+    private volatile long lastWriteNanos = 0;
+
+    private final Telemetry.DoubleEntry queueDepthEntry = Telemetry.doubleEntry("Logging/QueueDepth", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry droppedEntry = Telemetry.doubleEntry("Logging/DroppedCycles", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry lastWriteEntry = Telemetry.doubleEntry("Logging/WriteMs", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry maxWriteEntry = Telemetry.doubleEntry("Logging/MaxWriteMs", Tier.DASHBOARD);
+
+    public AsyncLogWriter(LogDataReceiver writer) {
+        this(writer, DEFAULT_CAPACITY);
+    }
+
+    public AsyncLogWriter(LogDataReceiver writer, int capacity) {
+        this.writer = writer;
+        // Array backed, so every slot is allocated up front
+        queue = new ArrayBlockingQueue<>(capacity);
+        thread = new Thread(this::run, "AsyncLogWriter");
+        thread.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        writer.start();
+        running = true;
+        thread.start();
+    }
+
+    /** Stops taking cycles and gives the writer thread a second to write the rest and close the log. */
+    @Override
+    public void end() {
+        running = false;
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            DriverStation.reportWarning("Log writer still flushing, it closes the log when done", false);
+        }
+    }
+
+    @Override
+    public void putTable(LogTable table) {
+        // Copy so the queued cycle cannot change under the writer thread
+        if (!queue.offer(LogTable.clone(table))) {
+            droppedCycles.incrementAndGet();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCycles() {
+        return droppedCycles.get();
+    }
+
+    /**
+     * Records the queue depth, dropped cycle count and write latency. Call once
+     * per loop; the max latency covers the time since the previous call.
+     */
+    public void updateTelemetry() {
+        queueDepthEntry.set(queue.size());
+        droppedEntry.set(droppedCycles.get());
+        lastWriteEntry.set(lastWriteNanos / 1e6);
+        maxWriteEntry.set(maxWriteNanos.getAndSet(0) / 1e6);
+    }
+
+    private void run() {
+        long lastReportedDrops = 0;
+        long lastWarning = 0;
+        // Keep going after end() until what is already queued is written
+        while (running || !queue.isEmpty()) {
+            LogTable table;
+            try {
+                table = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (table == null) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            writer.putTable(table);
+            long elapsed = System.nanoTime() - start;
+            lastWriteNanos = elapsed;
+            maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+
+            // Warn at most once a second while cycles are being dropped
+            long drops = droppedCycles.get();
+            if (drops != lastReportedDrops && start - lastWarning > 1_000_000_000L) {
+                DriverStation.reportWarning("Log writer fell behind, " + drops + " cycles dropped", false);
+                lastReportedDrops = drops;
+                lastWarning = start;
+            }
+        }
+        writer.end();
+    }
+}
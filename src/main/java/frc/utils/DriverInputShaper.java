@@ -0,0 +1,201 @@
+package frc.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.OIConstants;
+
+/**
+ * Turns raw joystick axes into drive commands: a radial deadband rescaled so
+ * output starts from zero at its edge, a response curve, and a precision mode
+ * that scales everything down for fine positioning near the grid.
+ *
+ * <p>
+ * Translation is shaped as a vector, so diagonals get the same curve as the
+ * axes and the direction is never bent by the deadband. Every stage works on
+ * primitives; the shaped translation is read back with {@link #getX()} and
+ * {@link #getY()} instead of being returned in an object.
+ *
+ * <p>
+ * Drivers pick their {@link Profile} by name, see {@link #loadProfiles}.
+ */
+public class DriverInputShaper {
+    /** How stick deflection past the deadband maps to output. */
+    public enum Curve {
+        LINEAR,
+        /** {@code t^exponent}. */
+        POWER,
+        /** {@code (1 - weight) * t + weight * t^3}. */
+        CUBIC
+    }
+
+    /**
+     * One driver's settings.
+     *
+     * @param deadband          Radial deadband of the translation stick.
+     * @param curve             Translation response curve.
+     * @param shape             Exponent for {@link Curve#POWER}, cubic weight
+     *                          for {@link Curve#CUBIC}.
+     * @param rotationDeadband  Deadband of the rotation axis.
+     * @param rotationCurve     Rotation response curve.
+     * @param rotationShape     Exponent or cubic weight for rotation.
+     * @param precisionScale    Output scale in precision mode.
+     */
+    public record Profile(double deadband, Curve curve, double shape, double rotationDeadband, Curve rotationCurve,
+            double rotationShape, double precisionScale) {
+    }
+
+    public static final String DEFAULT_PROFILE = "default";
+    public static final Profile DEFAULT = new Profile(OIConstants.kDriveDeadband, Curve.CUBIC, 0.7,
+            OIConstants.kDriveDeadband, Curve.CUBIC, 0.5, 0.35);
+
+    private Profile profile = DEFAULT;
+    private boolean precision = false;
+    private double x = 0.0;
+    private double y = 0.0;
+
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public void setPrecision(boolean precision) {
+        this.precision = precision;
+    }
+
+    public boolean isPrecision() {
+        return precision;
+    }
+
+    /**
+     * Shapes a translation stick. Read the result with {@link #getX()} and
+     * {@link #getY()}.
+     *
+     * @param rawX Forward axis, -1 to 1.
+     * @param rawY Sideways axis, -1 to 1.
+     */
+    public void shapeTranslation(double rawX, double rawY) {
+        double magnitude = Math.hypot(rawX, rawY);
+        if (magnitude <= profile.deadband()) {
+            x = 0.0;
+            y = 0.0;
+            return;
+        }
+        double shaped = shape(Math.min(magnitude, 1.0), profile.deadband(), profile.curve(), profile.shape());
+        if (precision) {
+            shaped *= profile.precisionScale();
+        }
+        x = rawX / magnitude * shaped;
+        y = rawY / magnitude * shaped;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /** Shapes a rotation axis, returns exactly zero inside the deadband. */
+    public double shapeRotation(double raw) {
+        double magnitude = Math.abs(raw);
+        if (magnitude <= profile.rotationDeadband()) {
+            return 0.0;
+        }
+        double shaped = shape(Math.min(magnitude, 1.0), profile.rotationDeadband(), profile.rotationCurve(),
+                profile.rotationShape());
+        if (precision) {
+            shaped *= profile.precisionScale();
+        }
+        return Math.copySign(shaped, raw);
+    }
+
+    /** Rescales a magnitude past the deadband to 0..1 and applies the curve. */
+    private static double shape(double magnitude, double deadband, Curve curve, double shape) {
+        double t = (magnitude - deadband) / (1.0 - deadband);
+        switch (curve) {
+            case POWER:
+                return Math.pow(t, shape);
+            case CUBIC:
+                return (1.0 - shape) * t + shape * t * t * t;
+            default:
+                return t;
+        }
+    }
+
+    /**
+     * Reads driver profiles from a properties file. Each key is
+     * {@code <driver>.<setting>}, with the settings named after the
+     * {@link Profile} components; missing settings fall back to
+     * {@link #DEFAULT}. The {@value #DEFAULT_PROFILE} profile is always present
+     * and listed first.
+     */
+    public static Map<String, Profile> loadProfiles(File file) {
+        Properties properties = new Properties();
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                DriverStation.reportError("Could not read " + file + ": " + e.getMessage(), false);
+            }
+        }
+
+        Map<String, Profile> profiles = new LinkedHashMap<>();
+        profiles.put(DEFAULT_PROFILE, parse(properties, DEFAULT_PROFILE, DEFAULT));
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.indexOf('.');
+            if (dot > 0 && !profiles.containsKey(key.substring(0, dot))) {
+                String name = key.substring(0, dot);
+                profiles.put(name, parse(properties, name, profiles.get(DEFAULT_PROFILE)));
+            }
+        }
+        return profiles;
+    }
+
+    private static Profile parse(Properties properties, String name, Profile defaults) {
+        return new Profile(
+                getDouble(properties, name + ".deadband", defaults.deadband()),
+                getCurve(properties, name + ".curve", defaults.curve()),
+                getDouble(properties, name + ".shape", defaults.shape()),
+                getDouble(properties, name + ".rotationDeadband", defaults.rotationDeadband()),
+                getCurve(properties, name + ".rotationCurve", defaults.rotationCurve()),
+                getDouble(properties, name + ".rotationShape", defaults.rotationShape()),
+                getDouble(properties, name + ".precisionScale", defaults.precisionScale()));
+    }
+
+    private static double getDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            DriverStation.reportError("Bad value for " + key + " in driver profiles: " + value, false);
+            return defaultValue;
+        }
+    }
+
+    private static Curve getCurve(Properties properties, String key, Curve defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Curve.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            DriverStation.reportError("Bad value for " + key + " in driver profiles: " + value, false);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package frc.utils;
+
+/**
+ * Streaming least-squares fit of {@code V = kS * sgn(v) + kV * v + kA * a}.
+ *
+ * <p>
+ * Only the sums of the normal equations are kept, so samples can be added one
+ * at a time straight from a file or a running test.
+ */
+public class FeedforwardFit {
+    private final double[][] xtx = new double[3][3];
+    private final double[] xty = new double[3];
+    private double sumY = 0.0;
+    private double sumYY = 0.0;
+    private int count = 0;
+    // Regressor row, reused for every sample
+    private final double[] x = new double[3];
+
+    /** Result of a fit, in volts per unit of the input data. */
+    public static class Result {
+        public final double kS;
+        public final double kV;
+        public final double kA;
+        public final double rSquared;
+        public final int samples;
+
+        Result(double kS, double kV, double kA, double rSquared, int samples) {
+            this.kS = kS;
+            this.kV = kV;
+            this.kA = kA;
+            this.rSquared = rSquared;
+            this.samples = samples;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("kS=%.4f kV=%.4f kA=%.4f r2=%.4f (%d samples)", kS, kV, kA, rSquared, samples);
+        }
+    }
+
+    public void add(double volts, double velocity, double acceleration) {
+        x[0] = Math.signum(velocity);
+        x[1] = velocity;
+        x[2] = acceleration;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                xtx[i][j] += x[i] * x[j];
+            }
+            xty[i] += x[i] * volts;
+        }
+        sumY += volts;
+        sumYY += volts * volts;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Solves the normal equations, or returns null if the data can't determine all three gains. */
+    public Result solve() {
+        double[][] a = new double[3][4];
+        for (int i = 0; i < 3; i++) {
+            System.arraycopy(xtx[i], 0, a[i], 0, 3);
+            a[i][3] = xty[i];
+        }
+        // Gaussian elimination with partial pivoting
+        for (int col = 0; col < 3; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < 3; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(a[pivot][col]) < 1e-12) {
+                return null;
+            }
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            for (int row = 0; row < 3; row++) {
+                if (row != col) {
+                    double factor = a[row][col] / a[col][col];
+                    for (int k = col; k < 4; k++) {
+                        a[row][k] -= factor * a[col][k];
+                    }
+                }
+            }
+        }
+        double[] b = { a[0][3] / a[0][0], a[1][3] / a[1][1], a[2][3] / a[2][2] };
+
+        // SSE = y'y - 2 b'X'y + b'X'X b
+        double sse = sumYY;
+        for (int i = 0; i < 3; i++) {
+            sse -= 2 * b[i] * xty[i];
+            for (int j = 0; j < 3; j++) {
+                sse += b[i] * xtx[i][j] * b[j];
+            }
+        }
+        double sst = sumYY - sumY * sumY / count;
+        return new Result(b[0], b[1], b[2], sst > 0 ? 1 - sse / sst : 0, count);
+    }
+}
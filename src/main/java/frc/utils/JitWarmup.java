@@ -0,0 +1,93 @@
+package frc.utils;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.RobotConfig;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.ArmIO;
+import frc.robot.subsystems.ArmState;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.GyroIO;
+import frc.robot.subsystems.ModuleIO;
+
+/**
+ * Runs the hot paths of the robot loop enough times for the JIT to compile
+ * them before the robot is enabled, instead of during the first seconds of a
+ * match.
+ *
+ * <p>
+ * Works on its own drive and arm built on empty IO, so no hardware is touched
+ * and the real subsystems' state is left alone. The copies are taken off the
+ * scheduler straight away. Telemetry keys are shared with the real subsystems,
+ * so the drive is left commanded to zero.
+ */
+public final class JitWarmup {
+    // Past the C2 compile thresholds for the methods called once per iteration
+    private static final int kIterations = 12000;
+
+    private JitWarmup() {
+    }
+
+    /** Runs the warm-up and returns how long it took in milliseconds. */
+    public static double run() {
+        long start = System.nanoTime();
+
+        DriveSubsystem drive = new DriveSubsystem(new GyroIO() {}, new ModuleIO() {}, new ModuleIO() {},
+                new ModuleIO() {}, new ModuleIO() {});
+        Arm arm = new Arm(new ArmIO() {}, RobotConfig.get().arm());
+        CommandScheduler.getInstance().unregisterSubsystem(drive, arm);
+
+        SwerveModulePosition[] positions = new SwerveModulePosition[4];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new SwerveModulePosition();
+        }
+        SwerveDriveOdometry odometry = new SwerveDriveOdometry(DriveConstants.kDriveKinematics, new Rotation2d(),
+                positions);
+        ArmState[] states = ArmState.values();
+
+        double sink = 0.0;
+        for (int i = 0; i < kIterations; i++) {
+            // Sweep the inputs through both drive paths. The slew limiting times
+            // itself off the logger timestamp, which stands still in robotInit,
+            // so it sees no elapsed time and only its bookkeeping gets warmed up
+            double phase = i * 0.01;
+            double x = Math.sin(phase);
+            double y = Math.cos(phase * 0.7);
+            double rot = Math.sin(phase * 1.3);
+            drive.drive(x, y, rot, true, true);
+            drive.drive(x, y, rot, false, false);
+
+            SwerveModuleState[] moduleStates = DriveConstants.kDriveKinematics.toSwerveModuleStates(
+                    new ChassisSpeeds(x, y, rot));
+            for (int m = 0; m < positions.length; m++) {
+                positions[m].distanceMeters += moduleStates[m].speedMetersPerSecond * 0.02;
+                positions[m].angle = moduleStates[m].angle;
+            }
+            sink += DriveConstants.kDriveKinematics.toChassisSpeeds(moduleStates).vxMetersPerSecond;
+            sink += odometry.update(Rotation2d.fromRadians(rot), positions).getX();
+
+            ArmState from = states[i % states.length];
+            ArmState to = states[(i / states.length) % states.length];
+            double shoulder = from.shoulderAngle + x * 10;
+            double elbow = from.elbowAngle + y * 10;
+            sink += arm.getArmPosition(shoulder, elbow).getX();
+            sink += arm.violatesFramePerimeter(shoulder, elbow) ? 1 : 0;
+            sink += Arm.shoulderFeedforward(shoulder, elbow) + Arm.elbowFeedforward(shoulder, elbow);
+            sink += ArmState.nearest(shoulder, elbow).ordinal();
+            sink += ArmState.path(from, to).length;
+        }
+        drive.drive(0, 0, 0, false, false);
+
+        // Keep the results live so none of the work can be optimized away
+        if (Double.isNaN(sink)) {
+            DriverStation.reportWarning("JIT warm-up produced NaN", false);
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
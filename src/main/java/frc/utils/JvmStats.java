@@ -0,0 +1,106 @@
+package frc.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.sun.management.ThreadMXBean;
+
+import frc.utils.Telemetry.Tier;
+
+/**
+ * Garbage collection and allocation telemetry.
+ *
+ * <p>
+ * Pause lengths come from the collectors' notifications, which arrive on a JVM
+ * thread, so the longest pause since the last {@link #update()} is kept in an
+ * atomic. Allocation is measured on the thread that calls {@link #update()},
+ * the robot thread, which is the one whose garbage causes the pauses.
+ */
+public class JvmStats {
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Runtime runtime = Runtime.getRuntime();
+
+    private final AtomicLong collections = new AtomicLong();
+    private final AtomicLong totalPauseMillis = new AtomicLong();
+    private final AtomicLong maxPauseMillis = new AtomicLong();
+    // Heap in use right after the last collection, the live set the old generation has to hold
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private long lastAllocatedBytes;
+    private long lastUpdateNanos;
+
+    private final Telemetry.DoubleEntry gcCountEntry = Telemetry.doubleEntry("JVM/GCCount", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry gcTimeEntry = Telemetry.doubleEntry("JVM/GCTotalMs", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry gcPauseEntry = Telemetry.doubleEntry("JVM/GCMaxPauseMs", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry allocationEntry = Telemetry.doubleEntry("JVM/AllocationMBPerSecond", Tier.DASHBOARD);
+    private final Telemetry.DoubleEntry heapEntry = Telemetry.doubleEntry("JVM/HeapUsedMB", Tier.LOG_ONLY);
+    private final Telemetry.DoubleEntry liveEntry = Telemetry.doubleEntry("JVM/HeapLiveMB", Tier.LOG_ONLY);
+
+    public JvmStats() {
+        // After-collection usage also lists metaspace and the code cache, only count the heap
+        Set<String> heapPools = new HashSet<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                    if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                        return;
+                    }
+                    GcInfo info = GarbageCollectionNotificationInfo
+                            .from((CompositeData) notification.getUserData()).getGcInfo();
+                    long duration = info.getDuration();
+                    long live = 0;
+                    for (Map.Entry<String, MemoryUsage> pool : info.getMemoryUsageAfterGc().entrySet()) {
+                        if (heapPools.contains(pool.getKey())) {
+                            live += pool.getValue().getUsed();
+                        }
+                    }
+                    liveBytes.set(live);
+                    collections.incrementAndGet();
+                    totalPauseMillis.addAndGet(duration);
+                    maxPauseMillis.accumulateAndGet(duration, Math::max);
+                }, null, null);
+            }
+        }
+        lastAllocatedBytes = threadBean.getCurrentThreadAllocatedBytes();
+        lastUpdateNanos = System.nanoTime();
+    }
+
+    /**
+     * Records collection counts, the longest pause since the last call, the
+     * robot thread's allocation rate, heap use and the heap still in use after
+     * the last collection. Call once per loop from the robot thread.
+     */
+    public void update() {
+        long now = System.nanoTime();
+        long allocated = threadBean.getCurrentThreadAllocatedBytes();
+        double seconds = (now - lastUpdateNanos) / 1e9;
+        if (seconds > 0) {
+            allocationEntry.set((allocated - lastAllocatedBytes) / 1e6 / seconds);
+        }
+        lastAllocatedBytes = allocated;
+        lastUpdateNanos = now;
+
+        gcCountEntry.set(collections.get());
+        gcTimeEntry.set(totalPauseMillis.get());
+        gcPauseEntry.set(maxPauseMillis.getAndSet(0));
+        heapEntry.set((runtime.totalMemory() - runtime.freeMemory()) / 1e6);
+        liveEntry.set(liveBytes.get() / 1e6);
+    }
+}
@@ -0,0 +1,117 @@
+package frc.utils;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * Times one drive loop's worth of kinematics through {@code SwerveDriveKinematics}
+ * and through {@link SwerveKinematicsEngine}, and checks the two agree.
+ *
+ * <p>
+ * Each operation is field-relative inverse kinematics, desaturation and forward
+ * kinematics of the result, the work {@code DriveSubsystem} does every cycle.
+ * Inputs sweep through a fixed table so both paths see the same data. Every
+ * pass is timed after a warm-up long enough for the JIT, and the best of the
+ * passes is reported.
+ */
+public class KinematicsBenchmark {
+    private static final int kInputs = 1024;
+    private static final int kWarmupPasses = 20;
+    private static final int kPasses = 20;
+    private static final int kOpsPerPass = 200_000;
+
+    private static final double[][] inputs = new double[kInputs][4];
+    private static double sink = 0.0;
+
+    public static void main(String... args) {
+        for (int i = 0; i < kInputs; i++) {
+            double phase = i * 0.37;
+            inputs[i][0] = Math.sin(phase) * DriveConstants.kMaxSpeedMetersPerSecond;
+            inputs[i][1] = Math.cos(phase * 0.7) * DriveConstants.kMaxSpeedMetersPerSecond;
+            inputs[i][2] = Math.sin(phase * 1.3) * DriveConstants.kMaxAngularSpeed;
+            inputs[i][3] = phase;
+        }
+
+        SwerveDriveKinematics kinematics = new SwerveDriveKinematics(DriveConstants.kModuleTranslations);
+        SwerveKinematicsEngine engine = new SwerveKinematicsEngine(DriveConstants.kModuleTranslations);
+        double[] speeds = new double[4];
+        double[] angles = new double[4];
+        double[] chassisSpeeds = new double[3];
+
+        System.out.printf("Max difference from WPILib: %.3e%n",
+                maxDifference(kinematics, engine, speeds, angles, chassisSpeeds));
+
+        double wpilibNs = time(() -> runWpilib(kinematics));
+        double engineNs = time(() -> runEngine(engine, speeds, angles, chassisSpeeds));
+        System.out.printf("%-24s %10.1f ns/op%n", "SwerveDriveKinematics", wpilibNs);
+        System.out.printf("%-24s %10.1f ns/op%n", "SwerveKinematicsEngine", engineNs);
+        System.out.printf("Speedup %.1fx%n", wpilibNs / engineNs);
+        if (Double.isNaN(sink)) {
+            System.out.println("Benchmark produced NaN");
+        }
+    }
+
+    private static double time(Runnable pass) {
+        for (int i = 0; i < kWarmupPasses; i++) {
+            pass.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < kPasses; i++) {
+            long start = System.nanoTime();
+            pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / kOpsPerPass;
+    }
+
+    private static void runWpilib(SwerveDriveKinematics kinematics) {
+        for (int i = 0; i < kOpsPerPass; i++) {
+            double[] input = inputs[i % kInputs];
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(ChassisSpeeds.fromFieldRelativeSpeeds(
+                    input[0], input[1], input[2], new Rotation2d(input[3])));
+            SwerveDriveKinematics.desaturateWheelSpeeds(states, DriveConstants.kMaxSpeedMetersPerSecond);
+            sink += kinematics.toChassisSpeeds(states).omegaRadiansPerSecond;
+        }
+    }
+
+    private static void runEngine(SwerveKinematicsEngine engine, double[] speeds, double[] angles,
+            double[] chassisSpeeds) {
+        for (int i = 0; i < kOpsPerPass; i++) {
+            double[] input = inputs[i % kInputs];
+            engine.toModuleStatesFieldRelative(input[0], input[1], input[2], Math.cos(input[3]),
+                    Math.sin(input[3]), speeds, angles);
+            SwerveKinematicsEngine.desaturate(speeds, DriveConstants.kMaxSpeedMetersPerSecond);
+            engine.toChassisSpeeds(speeds, angles, chassisSpeeds);
+            sink += chassisSpeeds[2];
+        }
+    }
+
+    /** Largest difference in any module speed, angle or chassis speed over the input table. */
+    private static double maxDifference(SwerveDriveKinematics kinematics, SwerveKinematicsEngine engine,
+            double[] speeds, double[] angles, double[] chassisSpeeds) {
+        double max = 0.0;
+        for (double[] input : inputs) {
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(ChassisSpeeds.fromFieldRelativeSpeeds(
+                    input[0], input[1], input[2], new Rotation2d(input[3])));
+            SwerveDriveKinematics.desaturateWheelSpeeds(states, DriveConstants.kMaxSpeedMetersPerSecond);
+            ChassisSpeeds expected = kinematics.toChassisSpeeds(states);
+
+            engine.toModuleStatesFieldRelative(input[0], input[1], input[2], Math.cos(input[3]),
+                    Math.sin(input[3]), speeds, angles);
+            SwerveKinematicsEngine.desaturate(speeds, DriveConstants.kMaxSpeedMetersPerSecond);
+            engine.toChassisSpeeds(speeds, angles, chassisSpeeds);
+
+            for (int m = 0; m < states.length; m++) {
+                max = Math.max(max, Math.abs(states[m].speedMetersPerSecond - speeds[m]));
+                max = Math.max(max, Math.abs(states[m].angle.getRadians() - angles[m]));
+            }
+            max = Math.max(max, Math.abs(expected.vxMetersPerSecond - chassisSpeeds[0]));
+            max = Math.max(max, Math.abs(expected.vyMetersPerSecond - chassisSpeeds[1]));
+            max = Math.max(max, Math.abs(expected.omegaRadiansPerSecond - chassisSpeeds[2]));
+        }
+        return max;
+    }
+}
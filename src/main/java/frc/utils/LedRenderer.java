@@ -0,0 +1,75 @@
+package frc.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.wpilibj.AddressableLED;
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Renders LED animations on a notifier thread into three preallocated frame
+ * buffers, so the robot loop only has to hand the newest finished frame to the
+ * strip.
+ *
+ * <p>
+ * The buffers are triple-buffered: the renderer owns one, the robot loop owns
+ * the one last sent to the strip, and the third holds the newest finished
+ * frame. Each side swaps its buffer with the middle one through a single
+ * atomic, so neither ever waits on the other or sees a half-drawn frame.
+ */
+public class LedRenderer {
+    /** Draws one frame. Runs on the render thread, must not allocate. */
+    public interface Animation {
+        void render(AddressableLEDBuffer buffer, double timeSeconds);
+    }
+
+    // Set on the middle index when it holds a frame the robot loop has not taken
+    private static final int kFresh = 4;
+
+    private final AddressableLED m_led;
+    private final AddressableLEDBuffer[] m_buffers = new AddressableLEDBuffer[3];
+    private final AtomicInteger m_middle = new AtomicInteger(1);
+    private final Notifier m_notifier = new Notifier(this::render);
+    // Render thread only
+    private int m_back = 2;
+    // Robot thread only
+    private int m_front = 0;
+
+    private volatile Animation m_animation;
+
+    public LedRenderer(int pwmPort, int length, double periodSeconds) {
+        for (int i = 0; i < m_buffers.length; i++) {
+            m_buffers[i] = new AddressableLEDBuffer(length);
+        }
+        m_led = new AddressableLED(pwmPort);
+        m_led.setLength(length);
+        m_led.setData(m_buffers[m_front]);
+        m_led.start();
+        m_notifier.setName("LED Render");
+        m_notifier.startPeriodic(periodSeconds);
+    }
+
+    /** Sets what the render thread draws from its next frame on. */
+    public void setAnimation(Animation animation) {
+        m_animation = animation;
+    }
+
+    /** Sends the newest finished frame to the strip, if there is one. Call from the robot loop. */
+    public void present() {
+        if ((m_middle.get() & kFresh) == 0) {
+            return;
+        }
+        m_front = m_middle.getAndSet(m_front) & ~kFresh;
+        m_led.setData(m_buffers[m_front]);
+    }
+
+    private void render() {
+        Animation animation = m_animation;
+        if (animation == null) {
+            return;
+        }
+        animation.render(m_buffers[m_back], Timer.getFPGATimestamp());
+        m_back = m_middle.getAndSet(m_back | kFresh) & ~kFresh;
+    }
+}
@@ -0,0 +1,231 @@
+package frc.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+
+/**
+ * Reads a batch of WPILOG files in parallel and writes one CSV row of match
+ * metrics per log: loop time, auto duration, balance time and arm move
+ * durations.
+ *
+ * <p>
+ * Each file is memory-mapped by {@link DataLogReader} and scanned on its own
+ * worker thread, so an event's worth of logs takes seconds rather than a full
+ * replay per match. Run with
+ * {@code ./gradlew analyzeLogs -Plogs=<files or directories> [-Pout=summary.csv]}.
+ */
+public class LogBatchAnalyzer {
+    private static final String LOOP_TIME = "LoggedRobot/FullCycleMS";
+    private static final String ENABLED = "DriverStation/Enabled";
+    private static final String AUTONOMOUS = "DriverStation/Autonomous";
+    private static final String BALANCING = "Balance/Active";
+    private static final String ARM_MOVING = "ArmState/Moving";
+    private static final String ARM_STARTS = "ArmState/Starts";
+    private static final double LOOP_PERIOD_MS = 20.0;
+
+    private static final String HEADER = "log,cycles,loop_mean_ms,loop_p99_ms,loop_max_ms,overruns,"
+            + "auto_s,balance_s,arm_moves,arm_move_mean_s,arm_move_max_s";
+
+    public static void main(String... args) throws Exception {
+        File out = new File("log-summary.csv");
+        List<File> logs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                out = new File(args[++i]);
+            } else {
+                addLogs(new File(args[i]), logs);
+            }
+        }
+        if (logs.isEmpty()) {
+            System.err.println("Usage: LogBatchAnalyzer [-o summary.csv] <log files or directories>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<String>> rows = new ArrayList<>();
+        for (File log : logs) {
+            rows.add(pool.submit(() -> analyze(log)));
+        }
+
+        try (PrintWriter writer = new PrintWriter(out)) {
+            writer.println(HEADER);
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    writer.println(rows.get(i).get());
+                } catch (Exception e) {
+                    System.err.println("Skipping " + logs.get(i) + ": " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("%d logs analyzed in %.2f s, wrote %s%n",
+                logs.size(), (System.nanoTime() - start) * 1e-9, out);
+    }
+
+    private static void addLogs(File file, List<File> logs) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles((dir, name) -> name.endsWith(".wpilog"));
+            if (children != null) {
+                Arrays.sort(children);
+                logs.addAll(Arrays.asList(children));
+            }
+        } else {
+            logs.add(file);
+        }
+    }
+
+    /** Scans one log and returns its CSV row. */
+    static String analyze(File file) throws IOException {
+        DataLogReader reader = new DataLogReader(file.getPath());
+        if (!reader.isValid()) {
+            throw new IOException("not a WPILOG file");
+        }
+
+        Map<Integer, String> names = new HashMap<>();
+        double[] loopTimes = new double[4096];
+        int cycles = 0;
+        Interval auto = new Interval();
+        Interval balance = new Interval();
+        Interval armMove = new Interval();
+        boolean enabled = false;
+        boolean autonomous = false;
+        double lastTime = 0.0;
+
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                names.put(start.entry, stripPrefix(start.name));
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+            String name = names.get(record.getEntry());
+            if (name == null) {
+                continue;
+            }
+            double time = record.getTimestamp() / 1e6;
+            lastTime = Math.max(lastTime, time);
+            switch (name) {
+                case LOOP_TIME:
+                    if (cycles == loopTimes.length) {
+                        loopTimes = Arrays.copyOf(loopTimes, cycles * 2);
+                    }
+                    loopTimes[cycles++] = record.getDouble();
+                    break;
+                case ENABLED:
+                    enabled = record.getBoolean();
+                    auto.update(enabled && autonomous, time);
+                    break;
+                case AUTONOMOUS:
+                    autonomous = record.getBoolean();
+                    auto.update(enabled && autonomous, time);
+                    break;
+                case BALANCING:
+                    balance.update(record.getBoolean(), time);
+                    break;
+                case ARM_MOVING:
+                    armMove.update(record.getBoolean(), time);
+                    break;
+                case ARM_STARTS:
+                    // Moving only changes when one move ends without another
+                    // starting in the same cycle, every start is counted here
+                    armMove.start(time);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // A log cut off mid-match still counts what was running
+        auto.update(false, lastTime);
+        balance.update(false, lastTime);
+        armMove.update(false, lastTime);
+
+        double[] sorted = Arrays.copyOf(loopTimes, cycles);
+        Arrays.sort(sorted);
+        double sum = 0;
+        int overruns = 0;
+        for (double loopTime : sorted) {
+            sum += loopTime;
+            if (loopTime > LOOP_PERIOD_MS) {
+                overruns++;
+            }
+        }
+        return String.format("%s,%d,%.3f,%.3f,%.3f,%d,%.3f,%.3f,%d,%.3f,%.3f",
+                file.getName(), cycles,
+                cycles == 0 ? 0.0 : sum / cycles,
+                cycles == 0 ? 0.0 : sorted[Math.min(cycles - 1, (int) Math.ceil(cycles * 0.99) - 1)],
+                cycles == 0 ? 0.0 : sorted[cycles - 1],
+                overruns, auto.total, balance.total,
+                armMove.count, armMove.count == 0 ? 0.0 : armMove.total / armMove.count, armMove.longest);
+    }
+
+    /** Outputs are logged under RealOutputs, or ReplayOutputs in replayed logs. */
+    private static String stripPrefix(String name) {
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        if (name.startsWith("RealOutputs/")) {
+            return name.substring("RealOutputs/".length());
+        }
+        if (name.startsWith("ReplayOutputs/")) {
+            return name.substring("ReplayOutputs/".length());
+        }
+        return name;
+    }
+
+    /** Time spent with a flag set, split into separate intervals. */
+    private static class Interval {
+        boolean active = false;
+        double since;
+        double total;
+        double longest;
+        int count;
+
+        void update(boolean value, double time) {
+            if (value && !active) {
+                active = true;
+                since = time;
+            } else if (!value && active) {
+                close(time);
+            }
+        }
+
+        /**
+         * Starts an interval, closing the open one. Both flags change in the same
+         * cycle when a move starts, so a start at the same time is the same one.
+         */
+        void start(double time) {
+            if (active && time > since) {
+                close(time);
+            }
+            if (!active) {
+                active = true;
+                since = time;
+            }
+        }
+
+        private void close(double time) {
+            double length = time - since;
+            total += length;
+            longest = Math.max(longest, length);
+            count++;
+            active = false;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package frc.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Times the parts of each robot loop and reports which ones are slow.
+ *
+ * <p>
+ * Code is timed two ways. A {@link Section} can be started and stopped around
+ * a block, which is how subsystems time their {@code periodic()}. The scheduler
+ * phases have no hooks of their own, so they are timed with marks: each
+ * {@link #mark} charges the time since the previous one to a section. Marks are
+ * bound to the start and end of the button loop and to the scheduler's execute
+ * callback, so button polling and every command's {@code execute()} are
+ * attributed without touching the commands.
+ *
+ * <p>
+ * Each section keeps its last {@link #kWindow} samples in an array allocated
+ * when it is created. {@link #report()} sorts them into p50/p99/max and lists
+ * the sections by p99, with how many loop overruns each was the largest part
+ * of. Only enabled cycles are timed. Everything runs on the robot thread.
+ *
+ * <p>
+ * Sections only cover {@code robotPeriodic()}, but an overrun is anything that
+ * makes the whole loop late: the mode periodic functions and AdvantageKit's
+ * logging before and after the user code count too. So overruns are found
+ * from the time between the starts of consecutive cycles, which spans all of
+ * it, and blamed once the next cycle starts.
+ */
+public final class LoopProfiler {
+    /** Samples kept per section, ten seconds of cycles. */
+    public static final int kWindow = 500;
+
+    private static final double kOverrunMs = TimedRobot.kDefaultPeriod * 1000;
+    // Notifier wakeup jitter allowed on top of the period before it counts
+    private static final double kJitterMs = 1.0;
+
+    private static final List<Section> sections = new ArrayList<>();
+    private static final Map<String, Section> byName = new HashMap<>();
+    // By name, commands are rebuilt and must not be kept alive by the profiler
+    private static final Map<String, Section> commandSections = new HashMap<>();
+    // Scratch for sorting a window, only used by report()
+    private static final double[] sorted = new double[kWindow];
+
+    private static final Section cycle = new Section("Cycle/RobotPeriodic", true);
+    // Start to start of consecutive enabled cycles, the whole loop
+    private static final Section period = new Section("Cycle/Period", true);
+    // Mode periodics and logging, only sampled on overruns since otherwise the
+    // period also holds the idle wait
+    private static final Section outside = section("Cycle/OutsideRobotPeriodic");
+    private static final Section subsystems = section("Scheduler/Subsystems", true);
+    private static final Section buttons = section("Scheduler/Buttons");
+    private static final Section finish = section("Scheduler/Finish");
+
+    private static long cycleStart;
+    private static double robotPeriodicMs;
+    private static long lastMark;
+    private static boolean running = false;
+    // Whether the previous cycle was timed, so its period can be checked
+    private static boolean previousTimed = false;
+    private static int cycles = 0;
+    private static int overruns = 0;
+
+    private LoopProfiler() {
+    }
+
+    /** Timing for one named part of the loop. */
+    public static final class Section {
+        private final String name;
+        // Sections that contain other sections don't take the blame for overruns
+        private final boolean aggregate;
+        private final double[] window = new double[kWindow];
+        private int next = 0;
+        private int count = 0;
+        private double maxMs = 0.0;
+        private double cycleMs = 0.0;
+        private int blamed = 0;
+        private long startNanos;
+
+        private Section(String name, boolean aggregate) {
+            this.name = name;
+            this.aggregate = aggregate;
+        }
+
+        public void start() {
+            if (!running) {
+                return;
+            }
+            startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            if (!running) {
+                return;
+            }
+            record((System.nanoTime() - startNanos) / 1e6);
+        }
+
+        private void record(double ms) {
+            window[next] = ms;
+            next = (next + 1) % kWindow;
+            count++;
+            maxMs = Math.max(maxMs, ms);
+            cycleMs += ms;
+        }
+
+        private void reset() {
+            next = 0;
+            count = 0;
+            maxMs = 0.0;
+            cycleMs = 0.0;
+            blamed = 0;
+        }
+    }
+
+    /**
+     * Returns the section with the given name, creating it the first time. Call
+     * once up front and keep the handle.
+     */
+    public static Section section(String name) {
+        return section(name, false);
+    }
+
+    private static Section section(String name, boolean aggregate) {
+        Section section = byName.get(name);
+        if (section == null) {
+            section = new Section(name, aggregate);
+            sections.add(section);
+            byName.put(name, section);
+        }
+        return section;
+    }
+
+    /**
+     * Starts timing subsystem periodics and command executes on the scheduler.
+     * Call before any button bindings are made, and {@link #endButtonBindings()}
+     * after the last one, so the button loop can be timed on its own.
+     */
+    public static void install(CommandScheduler scheduler) {
+        // The button loop polls right after the subsystems, bindings run in order
+        scheduler.getDefaultButtonLoop().bind(() -> mark(subsystems));
+        scheduler.onCommandExecute(
+                command -> mark(commandSections.computeIfAbsent(command.getName(),
+                        name -> section("Command/" + name))));
+    }
+
+    /** Closes the button loop's timing. Call after the last button binding. */
+    public static void endButtonBindings() {
+        CommandScheduler.getInstance().getDefaultButtonLoop().bind(() -> mark(buttons));
+    }
+
+    /** Charges the time since the previous mark (or the start of the cycle) to a section. */
+    public static void mark(Section section) {
+        if (!running) {
+            return;
+        }
+        long now = System.nanoTime();
+        section.record((now - lastMark) / 1e6);
+        lastMark = now;
+    }
+
+    /**
+     * Call at the start of {@code robotPeriodic()}. Checks whether the previous
+     * cycle overran before starting this one.
+     */
+    public static void startCycle() {
+        long now = System.nanoTime();
+        if (previousTimed) {
+            checkPeriod((now - cycleStart) / 1e6);
+        }
+        running = DriverStation.isEnabled();
+        previousTimed = running;
+        if (!running) {
+            return;
+        }
+        cycleStart = now;
+        lastMark = cycleStart;
+        for (Section section : sections) {
+            section.cycleMs = 0.0;
+        }
+    }
+
+    /** Call right after the scheduler has run. */
+    public static void schedulerDone() {
+        mark(finish);
+    }
+
+    /** Call at the end of {@code robotPeriodic()}. */
+    public static void endCycle() {
+        if (!running) {
+            return;
+        }
+        robotPeriodicMs = (System.nanoTime() - cycleStart) / 1e6;
+        cycle.record(robotPeriodicMs);
+        cycles++;
+        running = false;
+    }
+
+    /** Records the previous cycle's full period and blames its largest section if it overran. */
+    private static void checkPeriod(double ms) {
+        period.record(ms);
+        if (ms > kOverrunMs + kJitterMs) {
+            overruns++;
+            outside.record(ms - robotPeriodicMs);
+            Section largest = null;
+            for (Section section : sections) {
+                if (!section.aggregate && (largest == null || section.cycleMs > largest.cycleMs)) {
+                    largest = section;
+                }
+            }
+            if (largest != null) {
+                largest.blamed++;
+            }
+        }
+    }
+
+    /**
+     * Builds the report for everything timed since the last report, prints and
+     * logs it, and starts over. Does nothing if no cycles were timed, such as
+     * on the first disable after boot.
+     */
+    public static void report() {
+        if (cycles == 0) {
+            return;
+        }
+        List<Section> ranked = new ArrayList<>(sections);
+        ranked.add(0, cycle);
+        ranked.add(0, period);
+        Map<Section, double[]> stats = new HashMap<>();
+        for (Section section : ranked) {
+            stats.put(section, percentiles(section));
+        }
+        ranked.removeIf(section -> section.count == 0);
+        ranked.sort(Comparator.comparingDouble((Section section) -> -stats.get(section)[1]));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Loop profile: %d cycles, %d over %.0f ms (last %d samples per entry)%n",
+                cycles, overruns, kOverrunMs, kWindow));
+        report.append(String.format("%-40s %8s %8s %8s %8s%n", "", "p50 ms", "p99 ms", "max ms", "overruns"));
+        for (Section section : ranked) {
+            double[] values = stats.get(section);
+            report.append(String.format("%-40s %8.3f %8.3f %8.3f %8s%n", section.name, values[0], values[1],
+                    section.maxMs, section.aggregate ? "" : Integer.toString(section.blamed)));
+        }
+        System.out.print(report);
+        Logger.getInstance().recordOutput("Profiler/Report", report.toString());
+
+        for (Section section : sections) {
+            section.reset();
+        }
+        cycle.reset();
+        period.reset();
+        cycles = 0;
+        overruns = 0;
+        // The cycle in progress belongs to the window just reported
+        previousTimed = false;
+    }
+
+    /** p50 and p99 of a section's window. */
+    private static double[] percentiles(Section section) {
+        int size = Math.min(section.count, kWindow);
+        if (size == 0) {
+            return new double[] { 0.0, 0.0 };
+        }
+        System.arraycopy(section.window, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        return new double[] { sorted[(size - 1) / 2], sorted[(int) Math.ceil(size * 0.99) - 1] };
+    }
+}
@@ -0,0 +1,131 @@
+package frc.utils;
+
+import org.ejml.simple.SimpleMatrix;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Swerve inverse and forward kinematics on caller-owned {@code double[]}
+ * buffers, for the paths that run every loop.
+ *
+ * <p>
+ * Gives the same results as {@code SwerveDriveKinematics} with the center of
+ * rotation at the robot's center, but without the matrix multiply or any of
+ * the {@code ChassisSpeeds}, {@code SwerveModuleState} and {@code Rotation2d}
+ * objects. The forward kinematics use the same pseudo-inverse, computed once
+ * when the engine is built. Module angles are in radians, speeds in meters per
+ * second, and arrays are indexed in the order the module locations were given.
+ *
+ * <p>
+ * Like {@code SwerveDriveKinematics}, each engine remembers the last module
+ * angles it produced so a stop leaves the wheels where they were. Use one
+ * engine per consumer and only from one thread.
+ */
+public class SwerveKinematicsEngine {
+    private final int modules;
+    private final double[] moduleX;
+    private final double[] moduleY;
+    // Rows vx, vy, omega of the pseudo-inverse, columns alternate x and y per module
+    private final double[][] forward;
+    private final double[] lastAngles;
+
+    public SwerveKinematicsEngine(Translation2d... moduleLocations) {
+        modules = moduleLocations.length;
+        moduleX = new double[modules];
+        moduleY = new double[modules];
+        lastAngles = new double[modules];
+
+        SimpleMatrix inverse = new SimpleMatrix(modules * 2, 3);
+        for (int i = 0; i < modules; i++) {
+            moduleX[i] = moduleLocations[i].getX();
+            moduleY[i] = moduleLocations[i].getY();
+            inverse.setRow(i * 2, 0, 1, 0, -moduleY[i]);
+            inverse.setRow(i * 2 + 1, 0, 0, 1, moduleX[i]);
+        }
+        SimpleMatrix pseudoInverse = inverse.pseudoInverse();
+        forward = new double[3][modules * 2];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < modules * 2; col++) {
+                forward[row][col] = pseudoInverse.get(row, col);
+            }
+        }
+    }
+
+    public int getModuleCount() {
+        return modules;
+    }
+
+    /**
+     * Module speeds and angles for robot-relative chassis speeds. When all three
+     * speeds are zero the modules keep their last angles.
+     */
+    public void toModuleStates(double vx, double vy, double omega, double[] speeds, double[] angles) {
+        if (vx == 0.0 && vy == 0.0 && omega == 0.0) {
+            for (int i = 0; i < modules; i++) {
+                speeds[i] = 0.0;
+                angles[i] = lastAngles[i];
+            }
+            return;
+        }
+        for (int i = 0; i < modules; i++) {
+            double x = vx - omega * moduleY[i];
+            double y = vy + omega * moduleX[i];
+            speeds[i] = Math.hypot(x, y);
+            // Rotation2d(x, y) falls back to zero for a vector too short to have a direction
+            angles[i] = speeds[i] > 1e-6 ? Math.atan2(y, x) : 0.0;
+            lastAngles[i] = angles[i];
+        }
+    }
+
+    /**
+     * Module speeds and angles for field-relative chassis speeds, with the same
+     * rotation as {@code ChassisSpeeds.fromFieldRelativeSpeeds}. The heading is
+     * passed as its cosine and sine, straight from a {@code Rotation2d}.
+     */
+    public void toModuleStatesFieldRelative(double vx, double vy, double omega, double headingCos,
+            double headingSin, double[] speeds, double[] angles) {
+        toModuleStates(vx * headingCos + vy * headingSin, -vx * headingSin + vy * headingCos, omega, speeds,
+                angles);
+    }
+
+    /**
+     * Chassis speeds that best fit the given module speeds and angles, written
+     * to {@code chassisSpeeds} as vx, vy, omega.
+     */
+    public void toChassisSpeeds(double[] speeds, double[] angles, double[] chassisSpeeds) {
+        double vx = 0.0;
+        double vy = 0.0;
+        double omega = 0.0;
+        // Summed in the same order as the matrix multiply, so the results match exactly
+        for (int i = 0; i < modules; i++) {
+            double x = speeds[i] * Math.cos(angles[i]);
+            double y = speeds[i] * Math.sin(angles[i]);
+            vx += forward[0][i * 2] * x;
+            vx += forward[0][i * 2 + 1] * y;
+            vy += forward[1][i * 2] * x;
+            vy += forward[1][i * 2 + 1] * y;
+            omega += forward[2][i * 2] * x;
+            omega += forward[2][i * 2 + 1] * y;
+        }
+        chassisSpeeds[0] = vx;
+        chassisSpeeds[1] = vy;
+        chassisSpeeds[2] = omega;
+    }
+
+    /**
+     * Scales every speed down by the same factor if any is above the limit, the
+     * same as {@code SwerveDriveKinematics.desaturateWheelSpeeds} for the
+     * non-negative speeds kinematics produces.
+     */
+    public static void desaturate(double[] speeds, double maxSpeed) {
+        double realMaxSpeed = 0.0;
+        for (double speed : speeds) {
+            realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+        }
+        if (realMaxSpeed > maxSpeed) {
+            for (int i = 0; i < speeds.length; i++) {
+                speeds[i] = speeds[i] / realMaxSpeed * maxSpeed;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package frc.utils;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Fits kS, kV and kA to SysId data files, streaming them through
+ * {@link SysIdFile} and {@link FeedforwardFit}. Drivetrain files are fit per
+ * side and combined. Run with {@code ./gradlew sysid -Pdata=<file>}.
+ *
+ * <p>
+ * Acceleration is the central difference of velocity over three consecutive
+ * samples. Samples where the mechanism is not moving or no voltage is applied
+ * are left out, as SysId does.
+ */
+public class SysIdAnalyzer {
+    // Below this speed (units per second) static friction dominates and the sample is dropped
+    private static final double kMotionThreshold = 0.05;
+
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SysIdAnalyzer <sysid data files>");
+            return;
+        }
+        for (String arg : args) {
+            analyze(new File(arg));
+        }
+    }
+
+    public static void analyze(File file) throws IOException {
+        FeedforwardFit combined = new FeedforwardFit();
+        Channel left = new Channel(combined);
+        Channel right = new Channel(combined);
+        String[] units = { "units" };
+
+        SysIdFile.read(file, new SysIdFile.Visitor() {
+            @Override
+            public void startTest(String test) {
+                left.reset();
+                right.reset();
+            }
+
+            @Override
+            public void row(double[] row, int length) {
+                if (length >= 9) {
+                    left.add(row[0], row[1], row[5]);
+                    right.add(row[0], row[2], row[6]);
+                } else if (length >= 4) {
+                    left.add(row[0], row[1], row[3]);
+                }
+            }
+
+            @Override
+            public void header(String key, String value) {
+                if (key.equals("units")) {
+                    units[0] = value;
+                }
+            }
+        });
+
+        System.out.println(file.getName() + " (volts per " + units[0] + "/s)");
+        if (right.fit.getCount() > 0) {
+            print("left", left.fit);
+            print("right", right.fit);
+        }
+        print("combined", combined);
+    }
+
+    private static void print(String name, FeedforwardFit fit) {
+        FeedforwardFit.Result result = fit.solve();
+        System.out.printf("  %-9s %s%n", name, result == null ? "not enough data" : result);
+        if (result != null && name.equals("combined")) {
+            // The SPARK MAX velocity FF term is duty cycle per unit/s
+            System.out.printf("  %-9s velocity FF %.5f%n", "", result.kV / 12.0);
+        }
+    }
+
+    /** One voltage/velocity pair, with a three sample window for acceleration. */
+    private static class Channel {
+        final FeedforwardFit fit = new FeedforwardFit();
+        private final FeedforwardFit combined;
+        private final double[] time = new double[3];
+        private final double[] volts = new double[3];
+        private final double[] velocity = new double[3];
+        private int samples = 0;
+
+        Channel(FeedforwardFit combined) {
+            this.combined = combined;
+        }
+
+        void reset() {
+            samples = 0;
+        }
+
+        void add(double t, double v, double vel) {
+            time[0] = time[1];
+            time[1] = time[2];
+            time[2] = t;
+            volts[0] = volts[1];
+            volts[1] = volts[2];
+            volts[2] = v;
+            velocity[0] = velocity[1];
+            velocity[1] = velocity[2];
+            velocity[2] = vel;
+            samples++;
+            if (samples < 3 || time[2] <= time[0]) {
+                return;
+            }
+            if (Math.abs(velocity[1]) < kMotionThreshold || volts[1] == 0.0) {
+                return;
+            }
+            double acceleration = (velocity[2] - velocity[0]) / (time[2] - time[0]);
+            fit.add(volts[1], velocity[1], acceleration);
+            combined.add(volts[1], velocity[1], acceleration);
+        }
+    }
+}
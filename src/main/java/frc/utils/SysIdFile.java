@@ -0,0 +1,113 @@
+package frc.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads and writes the SysId data format: one array of sample rows per test
+ * ({@code slow-forward}, {@code slow-backward}, {@code fast-forward},
+ * {@code fast-backward}) plus a few header fields.
+ *
+ * <p>
+ * Drivetrain rows are {@code [t, leftVolts, rightVolts, leftPos, rightPos,
+ * leftVel, rightVel, gyroAngle, gyroRate]}, mechanism rows ({@code "Simple"})
+ * are {@code [t, volts, pos, vel]}. Reading is streamed row by row into one
+ * reused array, so a large file is never held in memory.
+ */
+public final class SysIdFile {
+    public static final String[] TESTS = { "slow-forward", "slow-backward", "fast-forward", "fast-backward" };
+    public static final String DRIVETRAIN = "Drivetrain";
+    public static final String SIMPLE = "Simple";
+
+    private static final JsonFactory factory = new JsonFactory();
+    // Longest row, the drivetrain format
+    private static final int MAX_ROW = 9;
+
+    private SysIdFile() {
+    }
+
+    /** Receives the contents of a file as it is read. */
+    public interface Visitor {
+        /** A new test's rows follow. */
+        public default void startTest(String test) {
+        }
+
+        /** One sample row. The array is reused, copy anything that is kept. */
+        public void row(double[] row, int length);
+
+        /** The rows of the current test are done. */
+        public default void endTest(String test) {
+        }
+
+        /** A header field, such as {@code test}, {@code units} or {@code unitsPerRotation}. */
+        public default void header(String key, String value) {
+        }
+    }
+
+    public static void read(File file, Visitor visitor) throws IOException {
+        double[] row = new double[MAX_ROW];
+        try (JsonParser parser = factory.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException(file + " is not a SysId data file");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_ARRAY) {
+                    visitor.startTest(key);
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        int length = 0;
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (length < MAX_ROW) {
+                                row[length] = parser.getDoubleValue();
+                            }
+                            length++;
+                        }
+                        visitor.row(row, Math.min(length, MAX_ROW));
+                    }
+                    visitor.endTest(key);
+                } else if (value == JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                } else {
+                    visitor.header(key, parser.getValueAsString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a data file.
+     *
+     * @param test             {@link #DRIVETRAIN} or {@link #SIMPLE}
+     * @param units            e.g. {@code "Meters"} or {@code "Radians"}
+     * @param unitsPerRotation units per rotation of the measured shaft
+     * @param runs             rows for each test name
+     */
+    public static void write(File file, String test, String units, double unitsPerRotation,
+            Map<String, List<double[]>> runs) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(file, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            for (Map.Entry<String, List<double[]>> run : runs.entrySet()) {
+                generator.writeArrayFieldStart(run.getKey());
+                for (double[] row : run.getValue()) {
+                    generator.writeArray(row, 0, row.length);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeBooleanField("sysid", true);
+            generator.writeStringField("test", test);
+            generator.writeStringField("units", units);
+            generator.writeNumberField("unitsPerRotation", unitsPerRotation);
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package frc.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Telemetry handles with precomputed keys and per-key rate tiers.
+ *
+ * <p>
+ * Subsystems create their handles once and set values every cycle. Values are
+ * only handed to the {@link Logger} when they change, all at once from
+ * {@link #flush()} at the end of the robot loop. Every value still reaches the
+ * log file each cycle; {@link TieredNT4Publisher} uses the tiers to decide how
+ * often each key goes out over NetworkTables.
+ */
+public final class Telemetry {
+    public enum Tier {
+        /** Every cycle to the log and to NetworkTables. */
+        FULL(1),
+        /** Every cycle to the log, every fifth cycle (10 Hz) to NetworkTables. */
+        DASHBOARD(5),
+        /** Log file only. */
+        LOG_ONLY(0);
+
+        /** Publish to NetworkTables every this many cycles, 0 for never. */
+        public final int ntDivisor;
+
+        private Tier(int ntDivisor) {
+            this.ntDivisor = ntDivisor;
+        }
+    }
+
+    /** Prefix AdvantageKit puts in front of recorded outputs. */
+    public static final String OUTPUT_PREFIX = "RealOutputs/";
+
+    private static final List<Entry> entries = new ArrayList<>();
+    private static final Map<String, Entry> handles = new HashMap<>();
+    private static final Map<String, Tier> keyTiers = new HashMap<>();
+    private static final Map<String, Tier> prefixTiers = new HashMap<>();
+    private static Tier defaultTier = Tier.DASHBOARD;
+
+    private Telemetry() {
+    }
+
+    /**
+     * Returns the handle for an output key. Asking for a key that already has a
+     * handle returns the same one, so commands that are built many times (or
+     * different commands reporting the same thing) can share a key.
+     */
+    public static DoubleEntry doubleEntry(String key, Tier tier) {
+        return register(key, tier, DoubleEntry.class, DoubleEntry::new);
+    }
+
+    public static BooleanEntry booleanEntry(String key, Tier tier) {
+        return register(key, tier, BooleanEntry.class, BooleanEntry::new);
+    }
+
+    public static StringEntry stringEntry(String key, Tier tier) {
+        return register(key, tier, StringEntry.class, StringEntry::new);
+    }
+
+    public static DoubleArrayEntry doubleArrayEntry(String key, int length, Tier tier) {
+        return register(key, tier, DoubleArrayEntry.class, k -> new DoubleArrayEntry(k, length));
+    }
+
+    /**
+     * Sets the tier for every table key under a prefix, e.g. the inputs of a
+     * subsystem ({@code "Drive/"}). Keys are relative to the log root.
+     */
+    public static void setPrefixTier(String prefix, Tier tier) {
+        prefixTiers.put(prefix, tier);
+    }
+
+    /** Sets the tier for keys that were not registered any other way. */
+    public static void setDefaultTier(Tier tier) {
+        defaultTier = tier;
+    }
+
+    /**
+     * Looks up the tier for a log table key, relative to the log root. Exact
+     * registrations win, then the longest matching prefix, then the default.
+     */
+    public static Tier getTier(String tableKey) {
+        Tier tier = keyTiers.get(tableKey);
+        if (tier != null) {
+            return tier;
+        }
+        int bestLength = -1;
+        for (Map.Entry<String, Tier> prefix : prefixTiers.entrySet()) {
+            if (prefix.getKey().length() > bestLength && tableKey.startsWith(prefix.getKey())) {
+                bestLength = prefix.getKey().length();
+                tier = prefix.getValue();
+            }
+        }
+        return tier != null ? tier : defaultTier;
+    }
+
+    /** Records every changed value. Call once per loop, after the scheduler. */
+    public static void flush() {
+        Logger logger = Logger.getInstance();
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).flush(logger);
+        }
+    }
+
+    private static <T extends Entry> T register(String key, Tier tier, Class<T> type, Function<String, T> factory) {
+        Entry existing = handles.get(key);
+        if (existing != null) {
+            if (!type.isInstance(existing)) {
+                throw new IllegalArgumentException("Telemetry key " + key + " is already a " +
+                        existing.getClass().getSimpleName());
+            }
+            return type.cast(existing);
+        }
+        T entry = factory.apply(key);
+        entries.add(entry);
+        handles.put(key, entry);
+        keyTiers.put(OUTPUT_PREFIX + key, tier);
+        return entry;
+    }
+
+    private abstract static class Entry {
+        protected final String key;
+        protected boolean dirty = true;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        abstract void flush(Logger logger);
+    }
+
+    public static final class DoubleEntry extends Entry {
+        private double value;
+
+        DoubleEntry(String key) {
+            super(key);
+        }
+
+        public void set(double value) {
+            if (value != this.value) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void flush(Logger logger) {
+            if (dirty) {
+                logger.recordOutput(key, value);
+                dirty = false;
+            }
+        }
+    }
+
+    public static final class BooleanEntry extends Entry {
+        private boolean value;
+
+        BooleanEntry(String key) {
+            super(key);
+        }
+
+        public void set(boolean value) {
+            if (value != this.value) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void flush(Logger logger) {
+            if (dirty) {
+                logger.recordOutput(key, value);
+                dirty = false;
+            }
+        }
+    }
+
+    public static final class StringEntry extends Entry {
+        private String value = "";
+
+        StringEntry(String key) {
+            super(key);
+        }
+
+        public void set(String value) {
+            if (!value.equals(this.value)) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void flush(Logger logger) {
+            if (dirty) {
+                logger.recordOutput(key, value);
+                dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Fixed-length array, filled element by element. Poses use the
+     * AdvantageKit layout {x, y, radians}, module states {radians, speed} per
+     * module.
+     */
+    public static final class DoubleArrayEntry extends Entry {
+        private final double[] values;
+
+        DoubleArrayEntry(String key, int length) {
+            super(key);
+            values = new double[length];
+        }
+
+        public void set(int index, double value) {
+            if (value != values[index]) {
+                values[index] = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void flush(Logger logger) {
+            if (dirty) {
+                // The log keeps a reference to what it is given and compares it
+                // against the next value, so hand it a copy
+                logger.recordOutput(key, values.clone());
+                dirty = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package frc.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.LogTable.LogValue;
+import org.littletonrobotics.junction.networktables.NT4Publisher;
+
+/**
+ * NetworkTables receiver that publishes each key at the rate of its
+ * {@link Telemetry.Tier}. Keys that are not due this cycle are left out of the
+ * table handed to the wrapped {@link NT4Publisher}, which then keeps showing
+ * their last published value. The log file receiver still sees everything.
+ */
+public class TieredNT4Publisher implements LogDataReceiver {
+    private final NT4Publisher publisher = new NT4Publisher();
+    // Tier lookups walk the prefix rules, so remember the answer per key
+    private final Map<String, Telemetry.Tier> tierCache = new HashMap<>();
+    private long cycle = 0;
+
+    @Override
+    public void start() {
+        publisher.start();
+    }
+
+    @Override
+    public void end() {
+        publisher.end();
+    }
+
+    @Override
+    public void putTable(LogTable table) {
+        LogTable filtered = new LogTable(table.getTimestamp());
+        for (Map.Entry<String, LogValue> field : table.getAll(true).entrySet()) {
+            Telemetry.Tier tier = tierCache.computeIfAbsent(field.getKey(), Telemetry::getTier);
+            if (tier.ntDivisor != 0 && cycle % tier.ntDivisor == 0) {
+                filtered.put(field.getKey(), field.getValue());
+            }
+        }
+        cycle++;
+        publisher.putTable(filtered);
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants.DriveConstants;
+
+class RobotConfigTest {
+    private static Properties properties(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    void emptyFilesGiveTheDefaults() {
+        RobotConfig config = RobotConfig.parse(RobotConfig.layer(new Properties(), new Properties()));
+        assertFalse(config.debug());
+        assertFalse(config.practiceRobot());
+        assertEquals(0.0, config.arm().shoulderEncoderOffset());
+        assertEquals(0.0, config.arm().elbowEncoderOffset());
+        assertEquals(DriveConstants.kFrontLeftChassisAngularOffset, config.drive().frontLeftOffset());
+        assertEquals(DriveConstants.kBackRightChassisAngularOffset, config.drive().rearRightOffset());
+    }
+
+    @Test
+    void practiceKeysOnlyApplyOnThePracticeRobot() {
+        Properties deploy = properties(
+                RobotConfig.SHOULDER_ENCODER_OFFSET, "10.0",
+                "practice." + RobotConfig.SHOULDER_ENCODER_OFFSET, "20.0");
+        RobotConfig competition = RobotConfig.parse(RobotConfig.layer(deploy, new Properties()));
+        assertEquals(10.0, competition.arm().shoulderEncoderOffset());
+
+        deploy.setProperty(RobotConfig.PRACTICE_ROBOT, " true ");
+        RobotConfig practice = RobotConfig.parse(RobotConfig.layer(deploy, new Properties()));
+        assertTrue(practice.practiceRobot());
+        assertEquals(20.0, practice.arm().shoulderEncoderOffset());
+    }
+
+    @Test
+    void localFileOverridesEverything() {
+        Properties deploy = properties(
+                RobotConfig.PRACTICE_ROBOT, "true",
+                RobotConfig.ELBOW_ENCODER_OFFSET, "1.0",
+                "practice." + RobotConfig.ELBOW_ENCODER_OFFSET, "2.0",
+                RobotConfig.FRONT_LEFT_OFFSET, "0.5");
+        Properties local = properties(RobotConfig.ELBOW_ENCODER_OFFSET, "3.0");
+        RobotConfig config = RobotConfig.parse(RobotConfig.layer(deploy, local));
+        assertEquals(3.0, config.arm().elbowEncoderOffset());
+        // Keys the local file leaves out still come from the deploy file
+        assertEquals(0.5, config.drive().frontLeftOffset());
+    }
+
+    @Test
+    void layeringLeavesTheInputsAlone() {
+        Properties deploy = properties(RobotConfig.PRACTICE_ROBOT, "true", "practice." + RobotConfig.DEBUG, "true");
+        RobotConfig.layer(deploy, new Properties());
+        assertEquals(2, deploy.size());
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Error paths of the loader. Every case here is rejected while reading the
+ * JSON, before a command is built, so no subsystems are needed.
+ */
+class AutoRoutineLoaderTest {
+  @TempDir
+  Path directory;
+
+  private final AutoRoutineLoader loader = new AutoRoutineLoader(null, null, null);
+
+  private String error(String json) throws IOException {
+    File file = directory.resolve("auto.json").toFile();
+    Files.writeString(file.toPath(), json.replace('\'', '"'));
+    return assertThrows(IllegalArgumentException.class, () -> loader.load(file)).getMessage();
+  }
+
+  @Test
+  void rootMustBeAnObject() throws IOException {
+    assertEquals("expected an object", error("[]"));
+  }
+
+  @Test
+  void rootKeysAreChecked() throws IOException {
+    assertEquals("name: expected a string", error("{'steps': []}"));
+    assertEquals("steps: expected an array", error("{'name': 'x', 'steps': {}}"));
+    assertEquals("author: unknown key", error("{'name': 'x', 'author': 'y', 'steps': []}"));
+  }
+
+  @Test
+  void unknownStepType() throws IOException {
+    assertEquals("steps[0].type: unknown step type \"drvie\"",
+        error("{'name': 'x', 'steps': [{'type': 'drvie'}]}"));
+    assertEquals("steps[0].type: expected a string", error("{'name': 'x', 'steps': [{'seconds': 1}]}"));
+    assertEquals("steps[0]: expected an object", error("{'name': 'x', 'steps': [1]}"));
+  }
+
+  @Test
+  void unknownKeysAreRejected() throws IOException {
+    assertEquals("steps[0].prestaged: unknown key",
+        error("{'name': 'x', 'steps': [{'type': 'arm', 'state': 'HIGH', 'prestaged': true}]}"));
+  }
+
+  @Test
+  void booleansMustBeBooleans() throws IOException {
+    assertEquals("steps[0].prestage: expected true or false",
+        error("{'name': 'x', 'steps': [{'type': 'arm', 'state': 'HIGH', 'prestage': 'false'}]}"));
+    assertEquals("steps[0].enabled: expected true or false",
+        error("{'name': 'x', 'steps': [{'type': 'brake', 'enabled': 1}]}"));
+  }
+
+  @Test
+  void valuesMustHaveTheRightType() throws IOException {
+    assertEquals("steps[0].seconds: expected a number",
+        error("{'name': 'x', 'steps': [{'type': 'wait', 'seconds': '2'}]}"));
+    assertEquals("steps[0].state: unknown arm state \"HIGHER\"",
+        error("{'name': 'x', 'steps': [{'type': 'requireArm', 'state': 'HIGHER'}]}"));
+    assertEquals("steps[0].action: unknown intake action \"spit\"",
+        error("{'name': 'x', 'steps': [{'type': 'intake', 'action': 'spit'}]}"));
+    assertEquals("steps[0].piece: expected cone or cube, got \"ball\"",
+        error("{'name': 'x', 'steps': [{'type': 'scoreHigh', 'piece': 'ball'}]}"));
+  }
+
+  @Test
+  void pathsAreChecked() throws IOException {
+    assertEquals("steps[0].start: expected [x, y, degrees]",
+        error("{'name': 'x', 'steps': [{'type': 'path', 'start': [0, 0], 'end': [1, 0, 0]}]}"));
+    assertEquals("steps[0].waypoints: expected an array",
+        error("{'name': 'x', 'steps': [{'type': 'path', 'start': [0, 0, 0], 'end': [1, 0, 0], 'waypoints': {}}]}"));
+    assertEquals("steps[0].waypoints[1]: expected [x, y]",
+        error("{'name': 'x', 'steps': [{'type': 'path', 'start': [0, 0, 0], 'end': [3, 0, 0], "
+            + "'waypoints': [[1, 0], [2, 'a']]}]}"));
+  }
+
+  @Test
+  void nestedErrorsGiveTheFullPath() throws IOException {
+    assertEquals("steps[0].steps[0].state: unknown arm state \"MIDDLE\"",
+        error("{'name': 'x', 'steps': [{'type': 'parallel', 'steps': [{'type': 'arm', 'state': 'MIDDLE'}]}]}"));
+    assertEquals("steps[0].deadline.x: unknown key",
+        error("{'name': 'x', 'steps': [{'type': 'deadline', 'deadline': {'type': 'balance', 'x': 1}, "
+            + "'steps': []}]}"));
+  }
+
+  @Test
+  void deadlineIsRequired() throws IOException {
+    assertEquals("steps[0].deadline: missing", error("{'name': 'x', 'steps': [{'type': 'deadline', 'steps': []}]}"));
+  }
+
+  @Test
+  void malformedJsonIsAnIoError() throws IOException {
+    File file = directory.resolve("auto.json").toFile();
+    Files.writeString(file.toPath(), "{\"name\": ");
+    assertThrows(JsonProcessingException.class, () -> loader.load(file));
+  }
+}
@@ -0,0 +1,80 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class ArmStateTest {
+    @Test
+    void everyPathEndsAtItsTarget() {
+        for (ArmState from : ArmState.values()) {
+            for (ArmState to : ArmState.values()) {
+                ArmState[] path = ArmState.path(from, to);
+                assertEquals(to, path[path.length - 1], from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void sameStateIsOneStep() {
+        for (ArmState state : ArmState.values()) {
+            assertArrayEquals(new ArmState[] { state }, ArmState.path(state, state));
+        }
+    }
+
+    @Test
+    void stowPassesThroughTransit() {
+        assertArrayEquals(new ArmState[] { ArmState.STOW_TRANSIT, ArmState.STOW },
+                ArmState.path(ArmState.HIGH, ArmState.STOW));
+        assertArrayEquals(new ArmState[] { ArmState.STOW }, ArmState.path(ArmState.STOW_TRANSIT, ArmState.STOW));
+    }
+
+    @Test
+    void highFromLowPassesThroughMid() {
+        assertArrayEquals(new ArmState[] { ArmState.MID, ArmState.HIGH }, ArmState.path(ArmState.STOW, ArmState.HIGH));
+        assertArrayEquals(new ArmState[] { ArmState.MID, ArmState.HIGH_APPROACH },
+                ArmState.path(ArmState.SUBSTATION, ArmState.HIGH_APPROACH));
+        // Already as high as MID, reach straight out
+        assertArrayEquals(new ArmState[] { ArmState.HIGH }, ArmState.path(ArmState.MID, ArmState.HIGH));
+        assertArrayEquals(new ArmState[] { ArmState.HIGH }, ArmState.path(ArmState.GROUND_CONE, ArmState.HIGH));
+    }
+
+    @Test
+    void pathsArePrecomputed() {
+        assertSame(ArmState.path(ArmState.STOW, ArmState.HIGH), ArmState.path(ArmState.STOW, ArmState.HIGH));
+    }
+
+    @Test
+    void stagingPathDropsTheFinalMove() {
+        for (ArmState from : ArmState.values()) {
+            for (ArmState to : ArmState.values()) {
+                ArmState[] path = ArmState.path(from, to);
+                ArmState[] staged = ArmState.stagingPath(from, to);
+                assertEquals(Math.max(0, path.length - 1), staged.length, from + " -> " + to);
+                for (int i = 0; i < staged.length; i++) {
+                    assertEquals(path[i], staged[i]);
+                }
+            }
+        }
+        assertArrayEquals(new ArmState[] { ArmState.MID }, ArmState.stagingPath(ArmState.STOW, ArmState.HIGH));
+        assertArrayEquals(new ArmState[0], ArmState.stagingPath(ArmState.MID, ArmState.HIGH));
+    }
+
+    @Test
+    void angleErrorWraps() {
+        assertEquals(20.0, ArmState.angleError(10, 350), 1e-9);
+        assertEquals(-20.0, ArmState.angleError(350, 10), 1e-9);
+        assertEquals(0.0, ArmState.angleError(360, 0), 1e-9);
+        assertEquals(180.0, ArmState.angleError(180, 0), 1e-9);
+    }
+
+    @Test
+    void nearestFindsTheClosestState() {
+        for (ArmState state : ArmState.values()) {
+            assertEquals(state, ArmState.nearest(state.shoulderAngle, state.elbowAngle));
+        }
+        assertEquals(ArmState.HIGH_RELEASE, ArmState.nearest(112, 349));
+    }
+}
@@ -0,0 +1,126 @@
+package frc.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.utils.DriverInputShaper.Curve;
+import frc.utils.DriverInputShaper.Profile;
+
+class DriverInputShaperTest {
+    private static final double kEpsilon = 1e-9;
+
+    private static Profile profile(Curve curve, double shape) {
+        return new Profile(0.1, curve, shape, 0.2, curve, shape, 0.25);
+    }
+
+    private static DriverInputShaper shaper(Curve curve, double shape) {
+        DriverInputShaper shaper = new DriverInputShaper();
+        shaper.setProfile(profile(curve, shape));
+        return shaper;
+    }
+
+    @Test
+    void zeroInsideAndAtTheDeadband() {
+        DriverInputShaper shaper = shaper(Curve.LINEAR, 0.0);
+        shaper.shapeTranslation(0.06, -0.08);
+        assertEquals(0.0, shaper.getX());
+        assertEquals(0.0, shaper.getY());
+        shaper.shapeTranslation(0.1, 0.0);
+        assertEquals(0.0, shaper.getX());
+        assertEquals(0.0, shaper.getY());
+        assertEquals(0.0, shaper.shapeRotation(0.2));
+        assertEquals(0.0, shaper.shapeRotation(-0.2));
+    }
+
+    @Test
+    void startsFromZeroJustPastTheDeadband() {
+        for (Curve curve : Curve.values()) {
+            DriverInputShaper shaper = shaper(curve, curve == Curve.POWER ? 2.0 : 0.7);
+            shaper.shapeTranslation(0.1 + 1e-7, 0.0);
+            assertTrue(shaper.getX() > 0.0 && shaper.getX() < 1e-6, curve.name());
+            double rotation = shaper.shapeRotation(-(0.2 + 1e-7));
+            assertTrue(rotation < 0.0 && rotation > -1e-6, curve.name());
+        }
+    }
+
+    @Test
+    void fullDeflectionIsFullOutput() {
+        for (Curve curve : Curve.values()) {
+            DriverInputShaper shaper = shaper(curve, curve == Curve.POWER ? 2.0 : 0.7);
+            shaper.shapeTranslation(0.0, -1.0);
+            assertEquals(0.0, shaper.getX(), kEpsilon);
+            assertEquals(-1.0, shaper.getY(), kEpsilon);
+            assertEquals(1.0, shaper.shapeRotation(1.0), kEpsilon);
+        }
+    }
+
+    @Test
+    void curvesShapeTheRescaledDeflection() {
+        // Halfway between the deadband and full deflection
+        double half = 0.1 + 0.9 * 0.5;
+        DriverInputShaper linear = shaper(Curve.LINEAR, 0.0);
+        linear.shapeTranslation(half, 0.0);
+        assertEquals(0.5, linear.getX(), kEpsilon);
+
+        DriverInputShaper power = shaper(Curve.POWER, 2.0);
+        power.shapeTranslation(half, 0.0);
+        assertEquals(0.25, power.getX(), kEpsilon);
+
+        DriverInputShaper cubic = shaper(Curve.CUBIC, 0.7);
+        cubic.shapeTranslation(half, 0.0);
+        assertEquals(0.3 * 0.5 + 0.7 * 0.125, cubic.getX(), kEpsilon);
+    }
+
+    @Test
+    void diagonalsKeepTheirDirectionAndAreClipped() {
+        DriverInputShaper shaper = shaper(Curve.CUBIC, 0.7);
+        shaper.shapeTranslation(1.0, 1.0);
+        assertEquals(Math.sqrt(0.5), shaper.getX(), kEpsilon);
+        assertEquals(Math.sqrt(0.5), shaper.getY(), kEpsilon);
+
+        shaper.shapeTranslation(0.3, -0.4);
+        assertEquals(-4.0 / 3.0, shaper.getY() / shaper.getX(), kEpsilon);
+    }
+
+    @Test
+    void precisionScalesEverything() {
+        DriverInputShaper shaper = shaper(Curve.LINEAR, 0.0);
+        shaper.setPrecision(true);
+        shaper.shapeTranslation(1.0, 0.0);
+        assertEquals(0.25, shaper.getX(), kEpsilon);
+        assertEquals(-0.25, shaper.shapeRotation(-1.0), kEpsilon);
+    }
+
+    @Test
+    void profilesFallBackToTheDefaultProfile(@TempDir Path directory) throws IOException {
+        File file = directory.resolve("drivers.properties").toFile();
+        Files.write(file.toPath(), List.of(
+                "default.deadband=0.08",
+                "sam.curve=power",
+                "sam.shape=2.5"));
+        Map<String, Profile> profiles = DriverInputShaper.loadProfiles(file);
+
+        assertEquals(List.of(DriverInputShaper.DEFAULT_PROFILE, "sam"), List.copyOf(profiles.keySet()));
+        Profile sam = profiles.get("sam");
+        assertEquals(Curve.POWER, sam.curve());
+        assertEquals(2.5, sam.shape());
+        assertEquals(0.08, sam.deadband());
+        assertEquals(DriverInputShaper.DEFAULT.rotationCurve(), sam.rotationCurve());
+    }
+
+    @Test
+    void missingFileGivesTheDefaultProfile(@TempDir Path directory) {
+        Map<String, Profile> profiles = DriverInputShaper.loadProfiles(directory.resolve("none").toFile());
+        assertEquals(Map.of(DriverInputShaper.DEFAULT_PROFILE, DriverInputShaper.DEFAULT), profiles);
+    }
+}
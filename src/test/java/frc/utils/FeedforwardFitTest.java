@@ -0,0 +1,66 @@
+package frc.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FeedforwardFitTest {
+    private static final double kS = 0.18;
+    private static final double kV = 2.45;
+    private static final double kA = 0.37;
+
+    /** Forward and backward ramps and steps, like a SysId run. */
+    private static void addRun(FeedforwardFit fit, Random noise, double noiseVolts) {
+        for (int i = 0; i < 400; i++) {
+            double t = i * 0.02;
+            double velocity = (i < 200 ? 1 : -1) * (0.5 + 1.5 * Math.sin(t));
+            double acceleration = 3.0 * Math.cos(t * 1.7);
+            double volts = kS * Math.signum(velocity) + kV * velocity + kA * acceleration;
+            fit.add(volts + noiseVolts * noise.nextGaussian(), velocity, acceleration);
+        }
+    }
+
+    @Test
+    void recoversExactGains() {
+        FeedforwardFit fit = new FeedforwardFit();
+        addRun(fit, new Random(1), 0.0);
+        FeedforwardFit.Result result = fit.solve();
+        assertNotNull(result);
+        assertEquals(kS, result.kS, 1e-9);
+        assertEquals(kV, result.kV, 1e-9);
+        assertEquals(kA, result.kA, 1e-9);
+        assertEquals(1.0, result.rSquared, 1e-9);
+        assertEquals(400, result.samples);
+    }
+
+    @Test
+    void recoversGainsThroughNoise() {
+        FeedforwardFit fit = new FeedforwardFit();
+        addRun(fit, new Random(1), 0.05);
+        FeedforwardFit.Result result = fit.solve();
+        assertNotNull(result);
+        assertEquals(kS, result.kS, 0.02);
+        assertEquals(kV, result.kV, 0.02);
+        assertEquals(kA, result.kA, 0.02);
+        assertEquals(1.0, result.rSquared, 0.01);
+    }
+
+    @Test
+    void noAccelerationCannotDetermineKa() {
+        FeedforwardFit fit = new FeedforwardFit();
+        for (int i = 1; i <= 100; i++) {
+            double velocity = i * 0.02;
+            fit.add(kS + kV * velocity, velocity, 0.0);
+        }
+        assertNull(fit.solve());
+    }
+
+    @Test
+    void noSamplesCannotBeSolved() {
+        assertNull(new FeedforwardFit().solve());
+    }
+}
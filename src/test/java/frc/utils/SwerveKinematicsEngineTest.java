@@ -0,0 +1,104 @@
+package frc.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.DriveConstants;
+
+class SwerveKinematicsEngineTest {
+    private static final double kEpsilon = 1e-9;
+
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(DriveConstants.kModuleTranslations);
+    private final SwerveKinematicsEngine engine = new SwerveKinematicsEngine(DriveConstants.kModuleTranslations);
+    private final double[] speeds = new double[4];
+    private final double[] angles = new double[4];
+
+    /** Same sweep of speeds and headings as {@link KinematicsBenchmark}. */
+    private static double[] input(int i) {
+        double phase = i * 0.37;
+        return new double[] {
+                Math.sin(phase) * DriveConstants.kMaxSpeedMetersPerSecond,
+                Math.cos(phase * 0.7) * DriveConstants.kMaxSpeedMetersPerSecond,
+                Math.sin(phase * 1.3) * DriveConstants.kMaxAngularSpeed,
+                phase };
+    }
+
+    private void assertMatches(SwerveModuleState[] states) {
+        for (int m = 0; m < states.length; m++) {
+            assertEquals(states[m].speedMetersPerSecond, speeds[m], kEpsilon, "speed of module " + m);
+            assertEquals(0.0, states[m].angle.minus(new Rotation2d(angles[m])).getRadians(), kEpsilon,
+                    "angle of module " + m);
+        }
+    }
+
+    @Test
+    void robotRelativeMatchesWpilib() {
+        for (int i = 0; i < 200; i++) {
+            double[] in = input(i);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(new ChassisSpeeds(in[0], in[1], in[2]));
+            engine.toModuleStates(in[0], in[1], in[2], speeds, angles);
+            assertMatches(states);
+        }
+    }
+
+    @Test
+    void fieldRelativeMatchesWpilib() {
+        for (int i = 0; i < 200; i++) {
+            double[] in = input(i);
+            Rotation2d heading = new Rotation2d(in[3]);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(
+                    ChassisSpeeds.fromFieldRelativeSpeeds(in[0], in[1], in[2], heading));
+            engine.toModuleStatesFieldRelative(in[0], in[1], in[2], heading.getCos(), heading.getSin(), speeds,
+                    angles);
+            assertMatches(states);
+        }
+    }
+
+    @Test
+    void stopKeepsTheLastAngles() {
+        kinematics.toSwerveModuleStates(new ChassisSpeeds(1.0, 0.5, 0.3));
+        engine.toModuleStates(1.0, 0.5, 0.3, speeds, angles);
+        SwerveModuleState[] states = kinematics.toSwerveModuleStates(new ChassisSpeeds());
+        engine.toModuleStates(0.0, 0.0, 0.0, speeds, angles);
+        assertMatches(states);
+    }
+
+    @Test
+    void desaturateMatchesWpilib() {
+        for (int i = 0; i < 200; i++) {
+            double[] in = input(i);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(new ChassisSpeeds(in[0], in[1], in[2]));
+            SwerveDriveKinematics.desaturateWheelSpeeds(states, DriveConstants.kMaxSpeedMetersPerSecond);
+            engine.toModuleStates(in[0], in[1], in[2], speeds, angles);
+            SwerveKinematicsEngine.desaturate(speeds, DriveConstants.kMaxSpeedMetersPerSecond);
+            assertMatches(states);
+        }
+    }
+
+    @Test
+    void forwardMatchesWpilib() {
+        double[] chassisSpeeds = new double[3];
+        for (int i = 0; i < 200; i++) {
+            double[] in = input(i);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(new ChassisSpeeds(in[0], in[1], in[2]));
+            for (int m = 0; m < states.length; m++) {
+                speeds[m] = states[m].speedMetersPerSecond;
+                angles[m] = states[m].angle.getRadians();
+            }
+            ChassisSpeeds expected = kinematics.toChassisSpeeds(states);
+            engine.toChassisSpeeds(speeds, angles, chassisSpeeds);
+            assertEquals(expected.vxMetersPerSecond, chassisSpeeds[0], kEpsilon);
+            assertEquals(expected.vyMetersPerSecond, chassisSpeeds[1], kEpsilon);
+            assertEquals(expected.omegaRadiansPerSecond, chassisSpeeds[2], kEpsilon);
+            // And the round trip gets back what went in
+            assertEquals(in[0], chassisSpeeds[0], kEpsilon);
+            assertEquals(in[1], chassisSpeeds[1], kEpsilon);
+            assertEquals(in[2], chassisSpeeds[2], kEpsilon);
+        }
+    }
+}